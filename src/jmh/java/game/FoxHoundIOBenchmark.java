@@ -0,0 +1,67 @@
+package game;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Save and load round trips through {@link FoxHoundIO}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoxHoundIOBenchmark {
+
+    @Param({ "4", "8", "16", "26" })
+    private int dim;
+
+    private String[] players;
+    private String[] loaded;
+    private Path path;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() throws IOException {
+        players = FoxHoundUtils.initialisePositions(dim);
+        loaded = new String[players.length];
+        path = Files.createTempFile("foxhound-bench", ".txt");
+
+        // saveGame echoes the saved line, keep it out of the benchmark output
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public char saveAndLoad() {
+        FoxHoundIO.saveGame(players, FoxHoundUtils.FOX_FIELD, path);
+        return FoxHoundIO.loadGame(loaded, path);
+    }
+
+    @Benchmark
+    public boolean save() {
+        return FoxHoundIO.saveGame(players, FoxHoundUtils.FOX_FIELD, path);
+    }
+}
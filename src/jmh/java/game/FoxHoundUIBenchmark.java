@@ -0,0 +1,56 @@
+package game;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Board rendering cost of {@link FoxHoundUI}, with the console replaced by a null stream. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoxHoundUIBenchmark {
+
+    @Param({ "4", "8", "16", "26" })
+    private int dim;
+
+    private String[] players;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() {
+        players = FoxHoundUtils.initialisePositions(dim);
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public void displayBoard() {
+        FoxHoundUI.displayBoard(players, dim);
+    }
+
+    @Benchmark
+    public void displayBoardFancy() {
+        FoxHoundUI.displayBoardFancy(players, dim);
+    }
+}
@@ -0,0 +1,68 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Per-call cost of the rule checks in {@link FoxHoundUtils}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FoxHoundUtilsBenchmark {
+
+    @Param({ "4", "8", "16", "26" })
+    private int dim;
+
+    private String[] players;
+    private String foxFrom;
+    private String foxTo;
+    private String lastHound;
+
+    @Setup
+    public void setup() {
+        players = FoxHoundUtils.initialisePositions(dim);
+        foxFrom = players[players.length - 1];
+        int fox = FoxHoundBoard.parseSquare(foxFrom, dim);
+        // one rank up and one file to the left is always on the board
+        foxTo = FoxHoundBoard.squareName(fox - dim - 1, dim);
+        lastHound = players[players.length - 2];
+    }
+
+    @Benchmark
+    public boolean isValidMove() {
+        return FoxHoundUtils.isValidMove(dim, players, FoxHoundUtils.FOX_FIELD, foxFrom, foxTo);
+    }
+
+    @Benchmark
+    public boolean isHoundWin() {
+        return FoxHoundUtils.isHoundWin(players, dim);
+    }
+
+    @Benchmark
+    public boolean isFoxWin() {
+        return FoxHoundUtils.isFoxWin(foxFrom);
+    }
+
+    @Benchmark
+    public String[] initialisePositions() {
+        return FoxHoundUtils.initialisePositions(dim);
+    }
+
+    @Benchmark
+    public int searchKey() {
+        return FoxHoundUtils.searchKey(players, lastHound);
+    }
+}
@@ -0,0 +1,103 @@
+package game;
+
+import java.io.PrintStream;
+
+/**
+ * Board rendering for ANSI terminals that redraws only what changed. The
+ * board is drawn once at the top of the screen, and the lines below it are
+ * made a scrolling region for menus and prompts, so the board never scrolls
+ * away. After that only the squares whose figure changed are rewritten with
+ * cursor-addressed updates, which costs a few bytes per square whatever the
+ * board dimension.
+ */
+public class FoxHoundAnsiRenderer implements AutoCloseable {
+
+    private static final String ESC = "\u001b[";
+    /** Save and restore the cursor (DECSC / DECRC). */
+    private static final String SAVE_CURSOR = "\u001b7";
+    private static final String RESTORE_CURSOR = "\u001b8";
+
+    private final int dim;
+    private final PrintStream out;
+    /** Screen column of file A, counted from 1. */
+    private final int firstColumn;
+    private final StringBuilder frame = new StringBuilder();
+    private char[] shown;
+
+    public FoxHoundAnsiRenderer(int dim, PrintStream out) {
+        FoxHoundBoard.checkDimension(dim);
+        this.dim = dim;
+        this.out = out;
+        this.firstColumn = (dim > 9 ? 3 : 2) + 1;
+    }
+
+    /** Draw the full board on the first call, afterwards only the squares that changed. */
+    public void render(String[] players) {
+        char[] grid = FoxHoundUI.occupancy(players, dim);
+        frame.setLength(0);
+        if (shown == null) {
+            drawBoard(grid);
+        } else {
+            boolean changed = false;
+            for (int square = 0; square < grid.length; square++) {
+                if (grid[square] != shown[square]) {
+                    if (!changed) {
+                        frame.append(SAVE_CURSOR);
+                        changed = true;
+                    }
+                    moveTo(square / dim + 2, firstColumn + square % dim);
+                    frame.append(grid[square]);
+                }
+            }
+            if (changed) {
+                frame.append(RESTORE_CURSOR);
+            }
+        }
+        shown = grid;
+        out.append(frame);
+        out.flush();
+    }
+
+    /** Force a full redraw on the next {@link #render(String[])}. */
+    public void invalidate() {
+        shown = null;
+    }
+
+    /** Give the whole screen back to scrolling output. */
+    @Override
+    public void close() {
+        // resetting the region homes the cursor on most terminals, keep it below the output instead
+        out.print(SAVE_CURSOR + ESC + "r" + RESTORE_CURSOR);
+        out.flush();
+    }
+
+    // Header, one line per rank from 1 down, footer; menus scroll below in their own region
+    private void drawBoard(char[] grid) {
+        String indent = dim > 9 ? "   " : "  ";
+        frame.append(ESC).append("r").append(ESC).append("2J").append(ESC).append('H');
+        appendFiles(indent);
+        for (int rank = 1; rank <= dim; rank++) {
+            String append = dim > 9 && rank < 10 ? "0" : "";
+            frame.append(append).append(rank).append(' ');
+            frame.append(grid, (rank - 1) * dim, dim);
+            frame.append(' ').append(append).append(rank).append("\r\n");
+        }
+        appendFiles(indent);
+
+        int top = dim + 4;
+        frame.append(ESC).append(top).append('r');
+        moveTo(top, 1);
+    }
+
+    private void appendFiles(String indent) {
+        frame.append(indent);
+        for (int i = 0; i < dim; i++) {
+            frame.append((char) ('A' + i));
+        }
+        frame.append("\r\n");
+    }
+
+    private void moveTo(int row, int column) {
+        frame.append(ESC).append(row).append(';').append(column).append('H');
+    }
+}
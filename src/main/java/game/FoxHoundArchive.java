@@ -0,0 +1,325 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Many saved games in one file. The archive holds the games back to back in
+ * the binary save format of {@link FoxHoundIO}, and a companion index file
+ * ({@code <archive>.idx}) holds one fixed-width offset per game, so game
+ * {@code id} is found with one read of the index and one of the archive.
+ * Both files are memory-mapped for reading; appends only add to the end of
+ * the two files.
+ *
+ * <p>A game is written to the archive before its offset goes to the index,
+ * so after a crash the index never points past the data. Data without an
+ * index entry is cut off when the archive is opened for writing. A single
+ * mapping limits either file to 2 GB, some 170 million games of 8x8.</p>
+ */
+public class FoxHoundArchive implements AutoCloseable {
+
+    /** Archive magic, 0x89 "FHA". */
+    public static final int MAGIC = 0x89464841;
+    /** Index magic, 0x89 "FHI". */
+    public static final int INDEX_MAGIC = 0x89464849;
+    /** Version of the archive and index layout. */
+    public static final int VERSION = 1;
+    /** Magic, version and three reserved bytes, in both files. */
+    public static final int HEADER_BYTES = 8;
+    /** Suffix of the index file. */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    private static final int OFFSET_BYTES = Long.BYTES;
+
+    private final Path path;
+    private final FileChannel data;
+    private final FileChannel index;
+    private final boolean writable;
+    private final ByteBuffer record;
+    private long games;
+    private long dataEnd;
+    private MappedByteBuffer dataMap;
+    private MappedByteBuffer indexMap;
+
+    private FoxHoundArchive(Path path, boolean writable) throws IOException {
+        this.path = path;
+        this.writable = writable;
+        this.record = ByteBuffer.allocate(FoxHoundIO.binarySize(FoxHoundUtils.MAX_DIM, Byte.MAX_VALUE));
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE }
+                : new StandardOpenOption[] { StandardOpenOption.READ };
+        this.data = FileChannel.open(path, options);
+        FileChannel indexChannel = null;
+        try {
+            indexChannel = FileChannel.open(indexPath(path), options);
+            this.index = indexChannel;
+            recover();
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    /** Open an archive for reading and appending, creating it if needed. */
+    public static FoxHoundArchive open(Path path) throws IOException {
+        return new FoxHoundArchive(path, true);
+    }
+
+    public static FoxHoundArchive openReadOnly(Path path) throws IOException {
+        return new FoxHoundArchive(path, false);
+    }
+
+    public static Path indexPath(Path archive) {
+        return archive.resolveSibling(archive.getFileName() + INDEX_SUFFIX);
+    }
+
+    /** Number of games in the archive; their ids are {@code 0} to {@code size() - 1}. */
+    public synchronized long size() {
+        return games;
+    }
+
+    /**
+     * Append a game.
+     *
+     * @return the id of the game
+     */
+    public synchronized long append(String[] players, char turn, int dim) throws IOException {
+        if (!writable) {
+            throw new IOException("Archive opened read-only: " + path);
+        }
+        record.clear();
+        FoxHoundIO.writeBinary(record, players, turn, dim);
+        record.flip();
+        writeFully(data, record, dataEnd);
+
+        record.clear();
+        record.putLong(dataEnd).flip();
+        writeFully(index, record, HEADER_BYTES + games * OFFSET_BYTES);
+
+        dataEnd += FoxHoundIO.binarySize(dim, players.length);
+        return games++;
+    }
+
+    /**
+     * Load game {@code id} into {@code players}.
+     *
+     * @return the side to move, or '#' if the game does not fit the players array
+     */
+    public synchronized char load(long id, String[] players) throws IOException {
+        if (id < 0 || id >= games) {
+            throw new IllegalArgumentException("Game id out of range: " + id);
+        }
+        long end = HEADER_BYTES + (id + 1) * OFFSET_BYTES;
+        if (indexMap == null || indexMap.capacity() < end) {
+            indexMap = map(index, HEADER_BYTES + games * OFFSET_BYTES);
+        }
+        long offset = indexMap.getLong((int) (end - OFFSET_BYTES));
+        if (dataMap == null || dataMap.capacity() < dataEnd) {
+            dataMap = map(data, dataEnd);
+        }
+        ByteBuffer game = dataMap.duplicate();
+        game.position((int) offset);
+        return FoxHoundIO.readBinary(game, players);
+    }
+
+    /** Force both files to disk, the archive before the index. */
+    public synchronized void sync() throws IOException {
+        if (writable) {
+            data.force(false);
+            index.force(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            data.close();
+            index.close();
+        }
+    }
+
+    // Check both headers (writing them for a new archive) and drop a torn tail
+    private void recover() throws IOException {
+        if (writable && data.size() == 0 && index.size() == 0) {
+            writeHeader(data, MAGIC);
+            writeHeader(index, INDEX_MAGIC);
+        }
+        checkHeader(data, MAGIC);
+        checkHeader(index, INDEX_MAGIC);
+
+        games = (index.size() - HEADER_BYTES) / OFFSET_BYTES;
+        dataEnd = HEADER_BYTES;
+        if (games > 0) {
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(OFFSET_BYTES, HEADER_BYTES));
+            readFully(index, buffer.limit(OFFSET_BYTES), HEADER_BYTES + (games - 1) * OFFSET_BYTES);
+            long last = buffer.getLong(0);
+            buffer.clear();
+            if (last < HEADER_BYTES || last + FoxHoundIO.BINARY_HEADER_BYTES > data.size()) {
+                throw new IOException("Corrupt archive index: " + indexPath(path));
+            }
+            readFully(data, buffer.limit(FoxHoundIO.BINARY_HEADER_BYTES), last);
+            dataEnd = last + FoxHoundIO.binarySize(buffer.get(5), buffer.get(7));
+            if (dataEnd > data.size()) {
+                throw new IOException("Corrupt archive: " + path);
+            }
+        }
+        if (writable) {
+            // entries or data written after the last complete game
+            index.truncate(HEADER_BYTES + games * OFFSET_BYTES);
+            data.truncate(dataEnd);
+        }
+    }
+
+    private static void writeHeader(FileChannel channel, int magic) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(magic).put((byte) VERSION).position(HEADER_BYTES);
+        header.flip();
+        writeFully(channel, header, 0);
+    }
+
+    private void checkHeader(FileChannel channel, int magic) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException("Not a game archive: " + path);
+        }
+        readFully(channel, header, 0);
+        if (header.getInt(0) != magic || header.get(4) != VERSION) {
+            throw new IOException("Not a game archive: " + path);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Archive too large to map: " + size + " bytes");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Smallest dimension a text save fits on: the number of pieces allows two
+     * dimensions, and every piece has to be on the board.
+     *
+     * @return the dimension, or -1 if there is none
+     */
+    public static int inferDimension(String[] players) {
+        int hounds = players.length - 1;
+        for (int dim = Math.max(FoxHoundUtils.MIN_DIM, 2 * hounds); dim <= 2 * hounds + 1; dim++) {
+            if (dim > FoxHoundUtils.MAX_DIM) {
+                break;
+            }
+            boolean onBoard = true;
+            for (String player : players) {
+                try {
+                    onBoard &= FoxHoundBoard.parseSquare(player, dim) >= 0;
+                } catch (IllegalArgumentException e) {
+                    onBoard = false;
+                }
+            }
+            if (onBoard) {
+                return dim;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Usage: {@code FoxHoundArchive pack <archive> <file or directory>...} to
+     * append text saves, or {@code FoxHoundArchive get <archive> <id>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("pack")) {
+            List<Path> files = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                try (Stream<Path> walk = Files.walk(Paths.get(args[i]))) {
+                    walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+                }
+            }
+            try (FoxHoundArchive archive = open(Paths.get(args[1]))) {
+                for (Path file : files) {
+                    pack(archive, file);
+                }
+                System.out.println(archive.size() + " games in " + args[1]);
+            }
+        } else if (args.length == 3 && args[0].equals("get")) {
+            try (FoxHoundArchive archive = openReadOnly(Paths.get(args[1]))) {
+                long id = Long.parseLong(args[2]);
+                String[] players = archive.players(id);
+                char turn = archive.load(id, players);
+                System.out.println(turn + " " + String.join(" ", players));
+            }
+        } else {
+            System.err.println("Usage: FoxHoundArchive pack <archive> <file or directory>...");
+            System.err.println("       FoxHoundArchive get <archive> <id>");
+        }
+    }
+
+    // Players array of the right length for game id
+    private String[] players(long id) throws IOException {
+        if (id < 0 || id >= games) {
+            throw new IllegalArgumentException("Game id out of range: " + id);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(FoxHoundIO.BINARY_HEADER_BYTES);
+        readFully(index, buffer.limit(OFFSET_BYTES), HEADER_BYTES + id * OFFSET_BYTES);
+        long offset = buffer.getLong(0);
+        buffer.clear();
+        readFully(data, buffer, offset);
+        return new String[buffer.get(7)];
+    }
+
+    private static void pack(FoxHoundArchive archive, Path file) throws IOException {
+        String[] tokens;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line = reader.readLine();
+            tokens = line == null ? new String[0] : line.trim().split("\\s+");
+        } catch (CharacterCodingException e) {
+            // not a text save
+            tokens = new String[0];
+        }
+        if (tokens.length >= 2 && tokens[0].length() == 1) {
+            String[] players = new String[tokens.length - 1];
+            System.arraycopy(tokens, 1, players, 0, players.length);
+            char turn = tokens[0].charAt(0);
+            int dim = inferDimension(players);
+            if (dim > 0 && (turn == FoxHoundUtils.FOX_FIELD || turn == FoxHoundUtils.HOUND_FIELD)) {
+                long id = archive.append(players, turn, dim);
+                System.out.println(id + " " + file);
+                return;
+            }
+        }
+        System.err.println("ERROR: not a valid save, skipped: " + file);
+    }
+}
@@ -0,0 +1,326 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Packed board state. The hounds are kept as a bitset over the squares of the
+ * board and the fox as a single square index, so legality and win checks are
+ * mask operations. Square indices run rank by rank, i.e. A1 is 0, B1 is 1 and
+ * the first square of rank 2 is {@code dim}. Boards up to 8x8 fit into a
+ * single word.
+ */
+public class FoxHoundBoard {
+
+    /** Number of squares per bitset word. */
+    private static final int WORD_BITS = 64;
+
+    /** Diagonal neighbour masks per dimension, laid out as [square * words + word]. */
+    private static final long[][] NEIGHBOURS = new long[FoxHoundUtils.MAX_DIM + 1][];
+    /** Forward (rank + 1) neighbour masks per dimension, same layout. */
+    private static final long[][] FORWARD = new long[FoxHoundUtils.MAX_DIM + 1][];
+
+    private final int dim;
+    private final int words;
+    private final long[] neighbours;
+    private final long[] forward;
+    private final long[] foxKeys;
+    private final long[] houndKeys;
+
+    private final long[] hounds;
+    private int fox;
+    private long key;
+
+    public FoxHoundBoard(int dim) {
+        checkDimension(dim);
+        this.dim = dim;
+        this.words = wordCount(dim);
+        this.neighbours = neighbourMasks(dim);
+        this.forward = forwardMasks(dim);
+        this.foxKeys = FoxHoundZobrist.foxKeys(dim);
+        this.houndKeys = FoxHoundZobrist.houndKeys(dim);
+        this.hounds = new long[words];
+        this.fox = -1;
+    }
+
+    public static FoxHoundBoard fromPlayers(String[] players, int dim) {
+        FoxHoundBoard board = new FoxHoundBoard(dim);
+        board.setPlayers(players);
+        return board;
+    }
+
+    public static void checkDimension(int dim) {
+        if (dim < FoxHoundUtils.MIN_DIM || dim > FoxHoundUtils.MAX_DIM) {
+            throw new IllegalArgumentException("Invalid board dimension: " + dim);
+        }
+    }
+
+    public static int houndCount(int dim) {
+        return dim / 2;
+    }
+
+    public static int wordCount(int dim) {
+        return (dim * dim + WORD_BITS - 1) / WORD_BITS;
+    }
+
+    /**
+     * Parse a board coordinate such as "B1".
+     *
+     * @return the square index, or -1 if the coordinate is well-formed but off the board
+     * @throws IllegalArgumentException if the coordinate is malformed
+     */
+    public static int parseSquare(String coord, int dim) {
+        int length = coord.length();
+        if (length < 2 || (coord.charAt(0) >= '0' && coord.charAt(0) <= '9')) {
+            throw new IllegalArgumentException("Invalid board coordinate: " + coord);
+        }
+
+        int rank = 0;
+        for (int i = 1; i < length; i++) {
+            char c = coord.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid board coordinate: " + coord);
+            }
+            if (rank <= dim) {
+                rank = rank * 10 + (c - '0');
+            }
+            // anything beyond dim is off the board anyway, stop growing
+        }
+
+        int file = coord.charAt(0) - 'A';
+        if (file < 0 || file >= dim || rank < 1 || rank > dim) {
+            return -1;
+        }
+        return (rank - 1) * dim + file;
+    }
+
+    /** Name of a square, from the {@link FoxHoundSquare} table, so nothing is allocated. */
+    public static String squareName(int square, int dim) {
+        return FoxHoundSquare.get(square, dim).name;
+    }
+
+    public void setPlayers(String[] players) {
+        int expected = houndCount(dim) + 1;
+        if (players.length != expected) {
+            throw new IllegalArgumentException("Invalid board setup: expected " + expected
+                    + " figures for dimension " + dim + " but got " + players.length);
+        }
+
+        clear();
+        for (int i = 0; i < players.length; i++) {
+            int square = parseSquare(players[i], dim);
+            if (square < 0) {
+                throw new IllegalArgumentException("Invalid board coordinate: " + players[i]);
+            }
+            if (isOccupied(square)) {
+                throw new IllegalArgumentException("Invalid board setup: square occupied twice: " + players[i]);
+            }
+
+            if (i == players.length - 1) {
+                setFox(square);
+            } else {
+                addHound(square);
+            }
+        }
+    }
+
+    /** Remove all figures from the board. */
+    public void clear() {
+        Arrays.fill(hounds, 0L);
+        fox = -1;
+        key = 0L;
+    }
+
+    public void addHound(int square) {
+        hounds[square / WORD_BITS] |= 1L << square;
+        key ^= houndKeys[square];
+    }
+
+    public void setFox(int square) {
+        if (fox >= 0) {
+            key ^= foxKeys[fox];
+        }
+        fox = square;
+        key ^= foxKeys[square];
+    }
+
+    /**
+     * Convert back to the player array layout used by {@link FoxHoundGame}:
+     * hounds in ascending square order followed by the fox.
+     */
+    public String[] toPlayers() {
+        String[] players = new String[houndCount(dim) + 1];
+        int j = 0;
+        for (int w = 0; w < words; w++) {
+            long bits = hounds[w];
+            while (bits != 0) {
+                int square = w * WORD_BITS + Long.numberOfTrailingZeros(bits);
+                players[j++] = squareName(square, dim);
+                bits &= bits - 1;
+            }
+        }
+        players[players.length - 1] = fox < 0 ? null : squareName(fox, dim);
+        return players;
+    }
+
+    public int dim() {
+        return dim;
+    }
+
+    public int fox() {
+        return fox;
+    }
+
+    /** Zobrist key of the placement, updated incrementally on every move. */
+    public long key() {
+        return key;
+    }
+
+    public boolean isHound(int square) {
+        return (hounds[square / WORD_BITS] & (1L << square)) != 0;
+    }
+
+    public boolean isOccupied(int square) {
+        return square == fox || isHound(square);
+    }
+
+    public boolean isValidMove(char fh, int from, int to) {
+        if (fh != FoxHoundUtils.FOX_FIELD && fh != FoxHoundUtils.HOUND_FIELD) {
+            throw new IllegalArgumentException("Given figure field invalid: " + fh);
+        }
+        if (from < 0 || to < 0 || isOccupied(to)) {
+            return false;
+        }
+
+        long target = 1L << to;
+        int word = from * words + to / WORD_BITS;
+        if (fh == FoxHoundUtils.FOX_FIELD) {
+            return from == fox && (neighbours[word] & target) != 0;
+        }
+        return isHound(from) && (forward[word] & target) != 0;
+    }
+
+    /** True if the fox has no free diagonal neighbour; squares off the board count as blocked. */
+    public boolean isFoxTrapped() {
+        int base = fox * words;
+        for (int w = 0; w < words; w++) {
+            if ((neighbours[base + w] & ~occupied(w)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** True if the fox has reached the first rank. */
+    public boolean isFoxWin() {
+        return fox >= 0 && fox < dim;
+    }
+
+    /**
+     * True if the fox is on or below the rank of the rearmost hound. Hounds
+     * never move back, so the fox then reaches the first rank whatever is
+     * played: the game is decided.
+     */
+    public boolean isFoxPastHounds() {
+        for (int w = 0; w < words; w++) {
+            if (hounds[w] != 0) {
+                int rear = w * WORD_BITS + Long.numberOfTrailingZeros(hounds[w]);
+                return fox >= 0 && fox / dim <= rear / dim;
+            }
+        }
+        return fox >= 0;
+    }
+
+    /** Move the figure on {@code from} to {@code to} without any legality check. */
+    public void move(int from, int to) {
+        if (from == fox) {
+            fox = to;
+            key ^= foxKeys[from] ^ foxKeys[to];
+        } else {
+            hounds[from / WORD_BITS] &= ~(1L << from);
+            hounds[to / WORD_BITS] |= 1L << to;
+            key ^= houndKeys[from] ^ houndKeys[to];
+        }
+    }
+
+    public void copyFrom(FoxHoundBoard other) {
+        if (other.dim != dim) {
+            throw new IllegalArgumentException("Dimension mismatch: " + other.dim + " != " + dim);
+        }
+        System.arraycopy(other.hounds, 0, hounds, 0, words);
+        fox = other.fox;
+        key = other.key;
+    }
+
+    int words() {
+        return words;
+    }
+
+    long houndWord(int w) {
+        return hounds[w];
+    }
+
+    long occupied(int w) {
+        long occ = hounds[w];
+        if (fox >= 0 && fox / WORD_BITS == w) {
+            occ |= 1L << fox;
+        }
+        return occ;
+    }
+
+    long neighbourWord(int square, int w) {
+        return neighbours[square * words + w];
+    }
+
+    long forwardWord(int square, int w) {
+        return forward[square * words + w];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof FoxHoundBoard)) {
+            return false;
+        }
+        FoxHoundBoard other = (FoxHoundBoard) o;
+        return dim == other.dim && fox == other.fox && Arrays.equals(hounds, other.hounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * dim + fox) + Arrays.hashCode(hounds);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toPlayers());
+    }
+
+    private static synchronized long[] neighbourMasks(int dim) {
+        if (NEIGHBOURS[dim] == null) {
+            NEIGHBOURS[dim] = buildMasks(dim, -1);
+        }
+        return NEIGHBOURS[dim];
+    }
+
+    private static synchronized long[] forwardMasks(int dim) {
+        if (FORWARD[dim] == null) {
+            FORWARD[dim] = buildMasks(dim, 1);
+        }
+        return FORWARD[dim];
+    }
+
+    // fromRank -1 builds all four diagonals, +1 only those one rank further
+    private static long[] buildMasks(int dim, int fromRank) {
+        int words = wordCount(dim);
+        long[] masks = new long[dim * dim * words];
+        int first = fromRank < 0 ? FoxHoundSquare.DOWN_LEFT : FoxHoundSquare.UP_LEFT;
+        for (FoxHoundSquare square : FoxHoundSquare.table(dim)) {
+            for (int direction = first; direction <= FoxHoundSquare.UP_RIGHT; direction++) {
+                int target = square.neighbour(direction);
+                if (target >= 0) {
+                    masks[square.index * words + target / WORD_BITS] |= 1L << target;
+                }
+            }
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,384 @@
+package game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Game tree search for either side. Negamax with alpha-beta pruning, driven
+ * by iterative deepening until the wall-clock budget runs out. Results are
+ * cached in a {@link FoxHoundTable} which may be shared with other engines.
+ * One engine is tied to one board dimension and is not thread-safe.
+ */
+public class FoxHoundEngine {
+
+    /** Score of a won position, reduced by the number of plies needed to win. */
+    public static final int WIN_SCORE = 1000000;
+    /** Maximum search depth in plies. */
+    public static final int MAX_PLY = 128;
+    /** Default thinking time per move in milliseconds. */
+    public static final long DEFAULT_TIME_MILLIS = 1000;
+    /** Time budget in milliseconds for searches limited by depth only. */
+    public static final long NO_TIME_LIMIT = Long.MAX_VALUE / 4000000L;
+
+    /** Static score of a fox that still has a free path to the first rank. */
+    private static final int PATH_SCORE = 10000;
+    /** Score lost per step the fox is away from the first rank. */
+    private static final int STEP_SCORE = 100;
+    /** How many nodes are searched between two clock checks. */
+    private static final int CLOCK_MASK = 1023;
+
+    /** Outcome of a search. */
+    public static class Result {
+        /** Best move found, see {@link FoxHoundMoves}, or -1 if there is none. */
+        public final int move;
+        /** Score from the point of view of the side to move. */
+        public final int score;
+        /** Deepest fully searched iteration. */
+        public final int depth;
+        /** Nodes visited over all iterations. */
+        public final long nodes;
+        /** Wall-clock time spent in nanoseconds. */
+        public final long nanos;
+
+        Result(int move, int score, int depth, long nodes, long nanos) {
+            this.move = move;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+            this.nanos = nanos;
+        }
+
+        public long nodesPerSecond() {
+            return FoxHoundMetrics.rate(nodes, nanos, TimeUnit.SECONDS);
+        }
+
+        public boolean isWin() {
+            return score >= WIN_SCORE - MAX_PLY;
+        }
+
+        public boolean isLoss() {
+            return score <= -WIN_SCORE + MAX_PLY;
+        }
+
+        @Override
+        public String toString() {
+            return "depth " + depth + ", score " + score + ", " + nodes + " nodes, "
+                    + nodesPerSecond() + " nodes/s, " + nanos / 1000000 + " ms";
+        }
+    }
+
+    private final int dim;
+    private final FoxHoundBoard board;
+    private final FoxHoundTable table;
+    private final AtomicBoolean abort;
+    private FoxHoundTablebaseFile tablebase;
+    private final int[] moves = new int[MAX_PLY * FoxHoundMoves.MAX_MOVES];
+
+    // Breadth-first search scratch space for the evaluation
+    private final int[] queue;
+    private final int[] distance;
+    private final int[] visited;
+    private int visitStamp;
+    private int reachable;
+
+    private long nodes;
+    private long deadline;
+    private boolean stopped;
+
+    public FoxHoundEngine(int dim) {
+        this(dim, new FoxHoundTable());
+    }
+
+    public FoxHoundEngine(int dim, FoxHoundTable table) {
+        this(dim, table, new AtomicBoolean());
+    }
+
+    /** Engine that also stops as soon as {@code abort} is set by another thread. */
+    FoxHoundEngine(int dim, FoxHoundTable table, AtomicBoolean abort) {
+        this.dim = dim;
+        this.board = new FoxHoundBoard(dim);
+        this.table = table;
+        this.abort = abort;
+        this.queue = new int[dim * dim];
+        this.distance = new int[dim * dim];
+        this.visited = new int[dim * dim];
+    }
+
+    public int dim() {
+        return dim;
+    }
+
+    public FoxHoundTable table() {
+        return table;
+    }
+
+    /** Use a tablebase for exact scores of the positions it covers. */
+    public void setTablebase(FoxHoundTablebaseFile tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /** Nodes visited by the last or currently running search. */
+    public long nodes() {
+        return nodes;
+    }
+
+    public Result search(String[] players, char turn, long timeMillis) {
+        return search(FoxHoundBoard.fromPlayers(players, dim), turn, timeMillis, MAX_PLY - 1);
+    }
+
+    public Result search(FoxHoundBoard position, char turn, long timeMillis, int maxDepth) {
+        return search(position, turn, timeMillis, maxDepth, 1, 0);
+    }
+
+    /**
+     * Search starting at {@code firstDepth} with the root move at index
+     * {@code rootShift} tried first, so that helper threads sharing a table
+     * explore different parts of the tree.
+     */
+    Result search(FoxHoundBoard position, char turn, long timeMillis, int maxDepth, int firstDepth, int rootShift) {
+        if (turn != FoxHoundUtils.FOX_FIELD && turn != FoxHoundUtils.HOUND_FIELD) {
+            throw new IllegalArgumentException("Given figure field invalid: " + turn);
+        }
+        board.copyFrom(position);
+
+        long start = System.nanoTime();
+        deadline = start + timeMillis * 1000000L;
+        nodes = 0;
+        stopped = false;
+
+        int count = FoxHoundMoves.generate(board, turn, moves, 0);
+        if (count == 0 || board.isFoxWin() || board.isFoxTrapped()) {
+            return new Result(-1, 0, 0, 0, System.nanoTime() - start);
+        }
+
+        if (rootShift > 0) {
+            moveToFront(moves, 0, count, moves[rootShift % count]);
+        }
+
+        int bestMove = moves[0];
+        int bestScore = 0;
+        int depth = 0;
+        for (int d = firstDepth; d <= Math.min(maxDepth, MAX_PLY - 1); d++) {
+            int alpha = -WIN_SCORE - 1;
+            int iterationMove = -1;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                board.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+                int score = -negamax(opponent(turn), d - 1, 1, -WIN_SCORE - 1, -alpha);
+                board.move(FoxHoundMoves.to(move), FoxHoundMoves.from(move));
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationMove = move;
+                }
+            }
+            if (stopped) {
+                break;
+            }
+
+            bestMove = iterationMove;
+            bestScore = alpha;
+            depth = d;
+            moveToFront(moves, 0, count, bestMove);
+            if (Math.abs(bestScore) >= WIN_SCORE - d) {
+                // the game ends within the searched depth, deeper iterations cannot change it
+                break;
+            }
+        }
+
+        return new Result(bestMove, bestScore, depth, nodes, System.nanoTime() - start);
+    }
+
+    private int negamax(char turn, int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if ((nodes & CLOCK_MASK) == 0 && (System.nanoTime() - deadline > 0 || abort.get())) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        if (board.isFoxWin()) {
+            return turn == FoxHoundUtils.FOX_FIELD ? WIN_SCORE - ply : -WIN_SCORE + ply;
+        }
+        if (board.isFoxTrapped()) {
+            return turn == FoxHoundUtils.HOUND_FIELD ? WIN_SCORE - ply : -WIN_SCORE + ply;
+        }
+        if (tablebase != null) {
+            int known = tablebase.score(board, turn, ply);
+            if (known != Integer.MIN_VALUE) {
+                return known;
+            }
+        }
+        if (depth == 0 || ply >= MAX_PLY - 1) {
+            // a decided game is scored as the win it is rather than by the heuristic
+            return board.isFoxPastHounds() ? foxWinScore(turn, ply) : evaluate(turn);
+        }
+
+        long key = FoxHoundZobrist.key(board, turn);
+        long entry = table.probe(key);
+        int hashMove = -1;
+        if (entry != FoxHoundTable.MISS) {
+            hashMove = FoxHoundTable.move(entry);
+            if (FoxHoundTable.depth(entry) >= depth) {
+                int score = fromTable(FoxHoundTable.score(entry), ply);
+                int bound = FoxHoundTable.bound(entry);
+                if (bound == FoxHoundTable.EXACT || (bound == FoxHoundTable.LOWER && score >= beta)
+                        || (bound == FoxHoundTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int offset = ply * FoxHoundMoves.MAX_MOVES;
+        int count = FoxHoundMoves.generate(board, turn, moves, offset);
+        if (count == 0) {
+            // hounds that cannot move have lost
+            return -WIN_SCORE + ply;
+        }
+        if (hashMove >= 0) {
+            moveToFront(moves, offset, count, hashMove);
+        }
+
+        int originalAlpha = alpha;
+        int best = -WIN_SCORE - 1;
+        int bestMove = -1;
+        for (int i = offset; i < offset + count; i++) {
+            int move = moves[i];
+            board.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+            int score = -negamax(opponent(turn), depth - 1, ply + 1, -beta, -alpha);
+            board.move(FoxHoundMoves.to(move), FoxHoundMoves.from(move));
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best <= originalAlpha ? FoxHoundTable.UPPER
+                : best >= beta ? FoxHoundTable.LOWER : FoxHoundTable.EXACT;
+        table.store(key, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    // Win scores are stored relative to the node so they stay valid at any ply
+    private static int toTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -WIN_SCORE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= WIN_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -WIN_SCORE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Score of a position the fox has won by passing every hound, as if it
+     * walked straight to the first rank. Hounds that run out of moves first
+     * make the win shorter, so the distance is only exact once searched; it
+     * is always beyond the horizon, and capped so that the score still counts
+     * as a win on the largest boards.
+     */
+    private int foxWinScore(char turn, int ply) {
+        int ranks = board.fox() / dim;
+        boolean fox = turn == FoxHoundUtils.FOX_FIELD;
+        int plies = Math.min(ply + (fox ? 2 * ranks - 1 : 2 * ranks), MAX_PLY - 1);
+        return fox ? WIN_SCORE - plies : -WIN_SCORE + plies;
+    }
+
+    /** Static evaluation of a position from the point of view of {@code turn}, decided games scored as wins. */
+    int evaluate(FoxHoundBoard position, char turn) {
+        board.copyFrom(position);
+        if (board.isFoxWin()) {
+            return turn == FoxHoundUtils.FOX_FIELD ? WIN_SCORE : -WIN_SCORE;
+        }
+        if (board.isFoxTrapped()) {
+            return turn == FoxHoundUtils.HOUND_FIELD ? WIN_SCORE : -WIN_SCORE;
+        }
+        return evaluate(turn);
+    }
+
+    /**
+     * Static evaluation from the point of view of the side to move. The fox is
+     * judged by how far it is from the first rank when the hounds are treated
+     * as walls; without such a path the hounds are close to trapping it.
+     */
+    private int evaluate(char turn) {
+        int steps = foxDistance();
+        int score = steps >= 0 ? PATH_SCORE - STEP_SCORE * steps : -PATH_SCORE + reachable;
+        return turn == FoxHoundUtils.FOX_FIELD ? score : -score;
+    }
+
+    // Breadth-first search from the fox over empty squares; -1 if rank 1 is out of reach
+    private int foxDistance() {
+        int stamp = ++visitStamp;
+        int head = 0;
+        int tail = 0;
+        int fox = board.fox();
+        queue[tail++] = fox;
+        visited[fox] = stamp;
+        distance[fox] = 0;
+
+        while (head < tail) {
+            int square = queue[head++];
+            if (square < dim) {
+                reachable = tail;
+                return distance[square];
+            }
+            int file = square % dim;
+            int rank = square / dim;
+            for (int dr = -1; dr <= 1; dr += 2) {
+                for (int df = -1; df <= 1; df += 2) {
+                    int f = file + df;
+                    int r = rank + dr;
+                    if (f < 0 || f >= dim || r < 0 || r >= dim) {
+                        continue;
+                    }
+                    int next = r * dim + f;
+                    if (visited[next] != stamp && !board.isHound(next)) {
+                        visited[next] = stamp;
+                        distance[next] = distance[square] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+        reachable = tail;
+        return -1;
+    }
+
+    static char opponent(char turn) {
+        return turn == FoxHoundUtils.FOX_FIELD ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+    }
+
+    private static void moveToFront(int[] moves, int offset, int count, int move) {
+        for (int i = offset; i < offset + count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, offset, moves, offset + 1, i - offset);
+                moves[offset] = move;
+                return;
+            }
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package game;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class FoxHoundGame {
 
     private static final Scanner STDIN_SCAN = new Scanner(System.in);
 
+    /** Command line option for the incremental ANSI board. */
+    private static final String ANSI_OPTION = "--ansi";
+    /** Command line option followed by the file every move is journaled to. */
+    private static final String JOURNAL_OPTION = "--journal";
+    /** Command line option to end the game once the fox has passed every hound. */
+    private static final String DECIDED_OPTION = "--decided";
+
     private static char swapPlayers(char currentTurn) {
         if (currentTurn == FoxHoundUtils.FOX_FIELD) {
             return FoxHoundUtils.HOUND_FIELD;
@@ -15,15 +25,65 @@ public class FoxHoundGame {
         }
     }
 
-    private static void gameLoop(int dim, String[] players) {
+    // Constant time: the state keeps the fox's square and free neighbours up to date
+    private static boolean isGameOver(FoxHoundState state, boolean stopWhenDecided) {
+        boolean over = false;
+        if (state.isFoxWin()) {
+            System.out.println("The Fox wins!");
+            over = true;
+        } else if (stopWhenDecided && state.isFoxPastHounds()) {
+            System.out.println("The Fox has passed every hound and wins!");
+            over = true;
+        }
+        if (state.isFoxTrapped()) {
+            System.out.println("The Hound wins!");
+            over = true;
+        }
+        return over;
+    }
+
+    private static FoxHoundEngine createEngine(int dim) {
+        FoxHoundEngine engine = new FoxHoundEngine(dim);
+        // Perfect play on the default board if the tablebase has been generated
+        if (dim == FoxHoundTablebase.DIM && Files.exists(FoxHoundTablebase.DEFAULT_PATH)) {
+            try {
+                engine.setTablebase(FoxHoundTablebaseFile.open(FoxHoundTablebase.DEFAULT_PATH));
+                System.out.println("Tablebase loaded: " + FoxHoundTablebase.DEFAULT_PATH);
+            } catch (IOException x) {
+                System.err.format("IOException: %s%n", x);
+            }
+        }
+        return engine;
+    }
+
+    // Journal a move; the game goes on if the journal cannot be written
+    private static void journalMove(FoxHoundJournal journal, String before, String after) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.appendMove(before, after);
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+        }
+    }
+
+    private static void gameLoop(int dim, String[] players, char turn, FoxHoundAnsiRenderer renderer,
+            FoxHoundJournal journal, boolean stopWhenDecided) {
 
-        char turn = FoxHoundUtils.FOX_FIELD;
         boolean exit = false;
+        FoxHoundEngine engine = createEngine(dim);
+        FoxHoundState state = new FoxHoundState(players, dim);
 
         while (!exit) {
-            System.out.println("\n#################################");
-            FoxHoundUI.displayBoard(players, dim);
-            // Print the board
+            if (renderer != null) {
+                // Only the squares changed since the last turn are redrawn
+                renderer.render(players);
+            } else {
+                System.out.println("\n#################################");
+                FoxHoundUI.displayBoard(players, dim);
+                // Print the board
+            }
 
             int choice = FoxHoundUI.mainMenuQuery(turn, STDIN_SCAN);
 
@@ -36,24 +96,32 @@ public class FoxHoundGame {
                         String after = step[1];
 
                         if (FoxHoundUtils.isValidMove(dim, players, turn, before, after)) {
-                            players[FoxHoundUtils.searchKey(players, before)] = after;
+                            state.move(before, after);
                             // Change original player to new one
+                            journalMove(journal, before, after);
                             break;
                         } else {
                             System.out.println("Invalid move");
                         }
                     }
                     turn = swapPlayers(turn);
+                    exit = isGameOver(state, stopWhenDecided);
+                    // Check if any players win
+                    break;
 
-                    if (FoxHoundUtils.isFoxWin(players[players.length - 1])) {
-                        System.out.println("The Fox wins!");
-                        exit = true;
-                    }
-                    if (FoxHoundUtils.isHoundWin(players, dim)) {
-                        System.out.println("The Hound wins!");
-                        exit = true;
+                case FoxHoundUI.MENU_COMPUTER_MOVE:
+                    FoxHoundEngine.Result result = engine.search(players, turn, FoxHoundEngine.DEFAULT_TIME_MILLIS);
+                    if (result.move < 0) {
+                        System.out.println("No legal move available");
+                        break;
                     }
-                    // Check if any players win
+                    System.out.println("Computer plays " + FoxHoundMoves.toString(result.move, dim) + " (" + result + ")");
+
+                    state.move(FoxHoundMoves.from(result.move), FoxHoundMoves.to(result.move));
+                    journalMove(journal, FoxHoundBoard.squareName(FoxHoundMoves.from(result.move), dim),
+                            FoxHoundBoard.squareName(FoxHoundMoves.to(result.move), dim));
+                    turn = swapPlayers(turn);
+                    exit = isGameOver(state, stopWhenDecided);
                     break;
 
                 case FoxHoundUI.MENU_SAVE_GAME:
@@ -67,11 +135,36 @@ public class FoxHoundGame {
                 case FoxHoundUI.MENU_LOAD_GAME:
                     Path paths = FoxHoundUI.fileQuery(STDIN_SCAN);
 
-                    char next = FoxHoundIO.loadGame(players, paths);
+                    String[] previous = players.clone();
+                    char next = FoxHoundIO.loadGameForBoard(players, paths, dim);
+                    if (next != '#') {
+                        try {
+                            state.reset();
+                        } catch (IllegalArgumentException e) {
+                            // a save of another board size or with overlapping pieces
+                            next = '#';
+                        }
+                    }
                     if (next == '#') {
+                        System.arraycopy(previous, 0, players, 0, players.length);
                         System.out.println("ERROR: Loading from file failed.");
                     }else{
                         turn = next;
+                        if (journal != null) {
+                            // Replay starts over from the loaded position
+                            try {
+                                journal.appendSnapshot(players, turn);
+                            } catch (IOException x) {
+                                System.err.format("IOException: %s%n", x);
+                            }
+                        }
+                    }
+                    break;
+                case FoxHoundUI.MENU_STATS:
+                    if (FoxHoundMetrics.ENABLED) {
+                        System.out.print(FoxHoundMetrics.text());
+                    } else {
+                        System.out.println("Metrics are off, run with -Dfoxhound.metrics=true to record them.");
                     }
                     break;
                 case FoxHoundUI.MENU_EXIT:
@@ -96,9 +189,54 @@ public class FoxHoundGame {
         } else
             System.out.println("Dimension entered is: " + dimension);
 
+        boolean ansi = false;
+        boolean decided = false;
+        Path journalPath = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals(ANSI_OPTION)) {
+                ansi = true;
+            } else if (args[i].equals(DECIDED_OPTION)) {
+                decided = true;
+            } else if (args[i].equals(JOURNAL_OPTION) && i + 1 < args.length) {
+                journalPath = Paths.get(args[++i]);
+            }
+        }
+
         String[] players = FoxHoundUtils.initialisePositions(dimension);
         // Initialise player
-        gameLoop(dimension, players);
+        char turn = FoxHoundUtils.FOX_FIELD;
+        FoxHoundJournal journal = null;
+        if (journalPath != null) {
+            try {
+                boolean existing = Files.exists(journalPath);
+                // Opening checks the dimension and replays an existing journal
+                journal = new FoxHoundJournal(journalPath, dimension);
+                if (existing) {
+                    // Continue the journaled game where it stopped
+                    turn = journal.recovered(players);
+                    System.out.println("Game recovered from journal: " + journalPath);
+                }
+            } catch (IOException x) {
+                System.err.format("IOException: %s%n", x);
+            }
+        }
+
+        FoxHoundMetrics.startPeriodicDump();
+        FoxHoundAnsiRenderer renderer = ansi ? new FoxHoundAnsiRenderer(dimension, System.out) : null;
+        try {
+            gameLoop(dimension, players, turn, renderer, journal, decided);
+        } finally {
+            if (renderer != null) {
+                renderer.close();
+            }
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException x) {
+                    System.err.format("IOException: %s%n", x);
+                }
+            }
+        }
         dimObj.close();
         STDIN_SCAN.close();
     }
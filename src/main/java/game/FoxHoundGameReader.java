@@ -0,0 +1,291 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streaming reader for text saves with one game per line, in the format
+ * written by {@link FoxHoundIO#saveGame}: the side to move followed by the
+ * squares of the hounds and the fox. Files are scanned byte by byte through
+ * one fixed buffer, so memory stays the same whatever the size of the input
+ * or the length of a line, and squares are decoded to numbers without
+ * creating strings. Malformed lines are passed to the listener with their
+ * line number and reading goes on.
+ *
+ * <p>Only the syntax is checked here: whether the squares are on the board
+ * and the pieces fit a dimension is up to the listener.</p>
+ */
+public class FoxHoundGameReader {
+
+    /** Most pieces on any board: the hounds and the fox of the largest one. */
+    public static final int MAX_PIECES = FoxHoundBoard.houndCount(FoxHoundUtils.MAX_DIM) + 1;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    /** Ranks are capped so that long digit runs cannot overflow. */
+    private static final int MAX_RANK = 1000000;
+
+    public static final String NO_TURN = "missing or invalid side to move";
+    public static final String NO_SEPARATOR = "expected whitespace between fields";
+    public static final String BAD_SQUARE = "invalid square";
+    public static final String TOO_MANY = "too many pieces";
+    public static final String TOO_FEW = "expected at least one hound and the fox";
+
+    /** Receives every game and every malformed line. */
+    public interface Listener {
+        /** The record is reused for the next line, copy what is needed. */
+        void game(Record record);
+
+        void invalid(Path file, long line, String reason);
+    }
+
+    /** One parsed line. */
+    public static final class Record {
+        private Path file;
+        private long line;
+        private char turn;
+        private int count;
+        private final int[] files = new int[MAX_PIECES];
+        private final int[] ranks = new int[MAX_PIECES];
+
+        public Path file() {
+            return file;
+        }
+
+        /** Line number, counted from 1. */
+        public long line() {
+            return line;
+        }
+
+        public char turn() {
+            return turn;
+        }
+
+        /** Number of pieces, the fox being the last. */
+        public int count() {
+            return count;
+        }
+
+        /** File of piece {@code i}, 0 for A. */
+        public int file(int i) {
+            return files[i];
+        }
+
+        /** Rank of piece {@code i}, counted from 1. */
+        public int rank(int i) {
+            return ranks[i];
+        }
+
+        /** @return the square index of piece {@code i} on a board of {@code dim}, or -1 if it is off the board */
+        public int square(int i, int dim) {
+            return files[i] < dim && ranks[i] <= dim ? (ranks[i] - 1) * dim + files[i] : -1;
+        }
+
+        /** The pieces as square names, in the order of a players array. */
+        public String[] players() {
+            String[] players = new String[count];
+            for (int i = 0; i < count; i++) {
+                players[i] = (char) ('A' + files[i]) + "" + ranks[i];
+            }
+            return players;
+        }
+    }
+
+    // Scanner states
+    private static final int LINE_START = 0;
+    private static final int AFTER_TURN = 1;
+    private static final int BETWEEN = 2;
+    private static final int AFTER_FILE = 3;
+    private static final int IN_RANK = 4;
+    private static final int SKIP = 5;
+
+    private final Listener listener;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final Record record = new Record();
+    private long games;
+    private long invalid;
+    private long bytes;
+
+    private int state;
+    private String error;
+
+    public FoxHoundGameReader(Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Valid games read so far. */
+    public long games() {
+        return games;
+    }
+
+    /** Malformed lines read so far. */
+    public long invalid() {
+        return invalid;
+    }
+
+    /** Bytes read so far. */
+    public long bytes() {
+        return bytes;
+    }
+
+    /** Read a file, or every regular file below a directory. */
+    public void read(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> walk = Files.walk(path)) {
+                Iterator<Path> files = walk.filter(Files::isRegularFile).iterator();
+                while (files.hasNext()) {
+                    readFile(files.next());
+                }
+            }
+        } else {
+            readFile(path);
+        }
+    }
+
+    private void readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel, file);
+        }
+    }
+
+    /** Read all games of a channel; {@code file} only names the source in reports. */
+    public void read(ReadableByteChannel channel, Path file) throws IOException {
+        record.file = file;
+        record.line = 1;
+        state = LINE_START;
+        buffer.clear();
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            byte[] array = buffer.array();
+            int limit = buffer.limit();
+            bytes += limit;
+            for (int i = 0; i < limit; i++) {
+                accept(array[i]);
+            }
+            buffer.clear();
+        }
+        endLine();
+    }
+
+    private void accept(byte b) {
+        if (b == '\n') {
+            endLine();
+            record.line++;
+            return;
+        }
+        boolean space = b == ' ' || b == '\t' || b == '\r';
+        switch (state) {
+            case LINE_START:
+                if (space) {
+                    return;
+                }
+                record.count = 0;
+                if (b == FoxHoundUtils.FOX_FIELD || b == FoxHoundUtils.HOUND_FIELD) {
+                    record.turn = (char) b;
+                    state = AFTER_TURN;
+                } else {
+                    fail(NO_TURN);
+                }
+                return;
+            case AFTER_TURN:
+                if (space) {
+                    state = BETWEEN;
+                } else {
+                    fail(b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' ? NO_TURN : NO_SEPARATOR);
+                }
+                return;
+            case BETWEEN:
+                if (space) {
+                    return;
+                }
+                if (b < 'A' || b > 'Z') {
+                    fail(BAD_SQUARE);
+                } else if (record.count == MAX_PIECES) {
+                    fail(TOO_MANY);
+                } else {
+                    record.files[record.count] = b - 'A';
+                    record.ranks[record.count] = 0;
+                    state = AFTER_FILE;
+                }
+                return;
+            case AFTER_FILE:
+            case IN_RANK:
+                if (b >= '0' && b <= '9' && !(state == AFTER_FILE && b == '0')) {
+                    int rank = record.ranks[record.count] * 10 + b - '0';
+                    record.ranks[record.count] = Math.min(rank, MAX_RANK);
+                    state = IN_RANK;
+                } else if (space && state == IN_RANK) {
+                    record.count++;
+                    state = BETWEEN;
+                } else {
+                    fail(space || b >= 'A' && b <= 'Z' || b >= '0' && b <= '9' ? BAD_SQUARE : NO_SEPARATOR);
+                }
+                return;
+            default:
+                // rest of a malformed line
+        }
+    }
+
+    private void fail(String reason) {
+        error = reason;
+        state = SKIP;
+    }
+
+    private void endLine() {
+        switch (state) {
+            case LINE_START:
+                // blank line
+                break;
+            case AFTER_FILE:
+                fail(BAD_SQUARE);
+                break;
+            case IN_RANK:
+                record.count++;
+                state = BETWEEN;
+                break;
+            default:
+                break;
+        }
+        if (state == AFTER_TURN || state == BETWEEN && record.count < 2) {
+            fail(TOO_FEW);
+        }
+
+        if (state == SKIP) {
+            invalid++;
+            listener.invalid(record.file, record.line, error);
+        } else if (state == BETWEEN) {
+            games++;
+            listener.game(record);
+        }
+        state = LINE_START;
+    }
+
+    /** Usage: {@code FoxHoundGameReader <file or directory>...}; prints every malformed line and the totals. */
+    public static void main(String[] args) throws IOException {
+        FoxHoundGameReader reader = new FoxHoundGameReader(new Listener() {
+            @Override
+            public void game(Record record) {
+                // only counted
+            }
+
+            @Override
+            public void invalid(Path file, long line, String reason) {
+                System.out.println(file + ":" + line + ": " + reason);
+            }
+        });
+        long start = System.nanoTime();
+        for (String arg : args) {
+            reader.read(Paths.get(arg));
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1000000);
+        System.out.println(reader.games() + " games, " + reader.invalid() + " invalid, " + reader.bytes()
+                + " bytes in " + millis + " ms");
+    }
+}
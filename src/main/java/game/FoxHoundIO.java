@@ -3,17 +3,37 @@ package game;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class FoxHoundIO {
 
+    /** Magic of the binary save format; the first byte is not ASCII, so text saves never match. */
+    public static final int BINARY_MAGIC = 0x89464842;
+    /** Version of the binary save format. */
+    public static final int BINARY_VERSION = 1;
+    /** Magic, version, dimension, side to move and piece count. */
+    public static final int BINARY_HEADER_BYTES = 8;
+    /** Expected dimension that accepts a save of any board size. */
+    private static final int ANY_DIM = 0;
+
     public static Boolean saveGame(String[] player, char fh, Path path) throws NullPointerException {
-        String str = fh + "";
+        long start = FoxHoundMetrics.start();
+        Boolean saved = writeGame(player, fh, path);
+        FoxHoundMetrics.stop(FoxHoundMetrics.SAVE_GAME, start);
+        return saved;
+    }
+
+    private static Boolean writeGame(String[] player, char fh, Path path) {
+        StringBuilder builder = new StringBuilder().append(fh);
         for (String p : player) {
-            str = str + " " + p;
+            builder.append(' ').append(p);
         }
+        String str = builder.toString();
 
         System.out.println("The string...:" + str);
 
@@ -28,7 +48,159 @@ public class FoxHoundIO {
         }
     }
 
+    /**
+     * Save in the binary format: a header followed by the square index of
+     * every piece, bit-packed with as many bits as the board needs (six on
+     * the default board), in the order of the players array.
+     */
+    public static boolean saveGameBinary(String[] player, char fh, int dim, Path path) {
+        ByteBuffer buffer = ByteBuffer.allocate(binarySize(dim, player.length));
+        writeBinary(buffer, player, fh, dim);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return true;
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+            return false;
+        }
+    }
+
+    /** Bytes taken by a binary save of {@code pieces} pieces. */
+    public static int binarySize(int dim, int pieces) {
+        return BINARY_HEADER_BYTES + (pieces * squareBits(dim) + 7) / 8;
+    }
+
+    /** Append a binary save to {@code buffer}. */
+    public static void writeBinary(ByteBuffer buffer, String[] player, char fh, int dim) {
+        FoxHoundBoard.checkDimension(dim);
+        if (fh != FoxHoundUtils.FOX_FIELD && fh != FoxHoundUtils.HOUND_FIELD) {
+            throw new IllegalArgumentException("Given figure field invalid: " + fh);
+        }
+        buffer.putInt(BINARY_MAGIC).put((byte) BINARY_VERSION).put((byte) dim).put((byte) fh)
+                .put((byte) player.length);
+
+        int bits = squareBits(dim);
+        long pending = 0;
+        int pendingBits = 0;
+        for (String p : player) {
+            int square = FoxHoundBoard.parseSquare(p, dim);
+            if (square < 0) {
+                throw new IllegalArgumentException("Player outside the board: " + p);
+            }
+            pending |= (long) square << pendingBits;
+            pendingBits += bits;
+            while (pendingBits >= 8) {
+                buffer.put((byte) pending);
+                pending >>>= 8;
+                pendingBits -= 8;
+            }
+        }
+        if (pendingBits > 0) {
+            buffer.put((byte) pending);
+        }
+    }
+
+    /**
+     * Read a binary save of a board of any size from {@code buffer} into
+     * {@code player}, e.g. out of an archive; the dimension is in the header.
+     *
+     * @return the side to move, or '#' if the data is not a valid save for this many players
+     */
+    public static char readBinary(ByteBuffer buffer, String[] player) {
+        return readBinary(buffer, player, ANY_DIM);
+    }
+
+    /**
+     * Read a binary save of a board of {@code expectedDim} from {@code buffer}
+     * into {@code player}.
+     *
+     * @return the side to move, or '#' if the data is not a valid save of such a board
+     */
+    public static char readBinary(ByteBuffer buffer, String[] player, int expectedDim) {
+        if (buffer.remaining() < BINARY_HEADER_BYTES || buffer.getInt() != BINARY_MAGIC
+                || buffer.get() != BINARY_VERSION) {
+            return '#';
+        }
+        int dim = buffer.get();
+        char fh = (char) buffer.get();
+        int pieces = buffer.get();
+        // boards of dimension 2k and 2k + 1 have the same number of players
+        if ((expectedDim != ANY_DIM && dim != expectedDim) || dim < FoxHoundUtils.MIN_DIM
+                || dim > FoxHoundUtils.MAX_DIM || (fh != FoxHoundUtils.FOX_FIELD && fh != FoxHoundUtils.HOUND_FIELD)
+                || pieces != player.length
+                || buffer.remaining() < binarySize(dim, pieces) - BINARY_HEADER_BYTES) {
+            return '#';
+        }
+
+        int bits = squareBits(dim);
+        String[] loaded = new String[pieces];
+        long pending = 0;
+        int pendingBits = 0;
+        for (int i = 0; i < pieces; i++) {
+            while (pendingBits < bits) {
+                pending |= (buffer.get() & 0xFFL) << pendingBits;
+                pendingBits += 8;
+            }
+            int square = (int) (pending & ((1L << bits) - 1));
+            pending >>>= bits;
+            pendingBits -= bits;
+            if (square >= dim * dim) {
+                return '#';
+            }
+            loaded[i] = FoxHoundBoard.squareName(square, dim);
+        }
+        System.arraycopy(loaded, 0, player, 0, pieces);
+        return fh;
+    }
+
+    /** Load game {@code id} out of a {@link FoxHoundArchive}. */
+    public static char loadGame(String[] player, Path archive, long id) {
+        try (FoxHoundArchive games = FoxHoundArchive.openReadOnly(archive)) {
+            return games.load(id, player);
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+            return '#';
+        }
+    }
+
+    // Bits needed for a square index of the board
+    private static int squareBits(int dim) {
+        return 32 - Integer.numberOfLeadingZeros(dim * dim - 1);
+    }
+
+    /** Load a save in either format, telling them apart by the binary magic. */
     public static char loadGame(String[] player, Path path) {
+        return loadGameForBoard(player, path, ANY_DIM);
+    }
+
+    /**
+     * Load a save in either format for a board of {@code dim}. A binary save
+     * of another board size is rejected; text saves do not record the size.
+     * Unlike {@link #loadGame(String[], Path, long)} the last argument is not
+     * an archive game id.
+     */
+    public static char loadGameForBoard(String[] player, Path path, int dim) {
+        long start = FoxHoundMetrics.start();
+        char loaded = readGame(player, path, dim);
+        FoxHoundMetrics.stop(FoxHoundMetrics.LOAD_GAME, start);
+        return loaded;
+    }
+
+    private static char readGame(String[] player, Path path, int dim) {
+        try {
+            ByteBuffer binary = readIfBinary(path);
+            if (binary != null) {
+                return readBinary(binary, player, dim);
+            }
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+            return '#';
+        }
+
         Charset charset = Charset.forName("US-ASCII");
         try (BufferedReader reader = Files.newBufferedReader(path, charset)) {
             String str = null;
@@ -46,4 +218,26 @@ public class FoxHoundIO {
         }
         return '#';
     }
+
+    // Whole file if it starts with the binary magic, otherwise null
+    private static ByteBuffer readIfBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // keep reading until the magic is complete or the file ends
+            }
+            if (magic.hasRemaining() || magic.getInt(0) != BINARY_MAGIC) {
+                return null;
+            }
+            // a save is never larger than this, trailing bytes are ignored
+            int size = (int) Math.min(channel.size(), binarySize(FoxHoundUtils.MAX_DIM, Byte.MAX_VALUE));
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            channel.position(0);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole save
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
 }
@@ -0,0 +1,244 @@
+package game;
+
+import java.math.BigInteger;
+
+/**
+ * Perfect ranking of positions to dense integers. The hounds are ranked as a
+ * k-combination of the dark squares (combinatorial number system), the fox
+ * by its place among the dark squares left free, and the side to move is the
+ * lowest digit. Every position with all figures on dark squares gets a
+ * unique index in {@code [0, size)} and every index maps back to a position.
+ *
+ * <p>Up to 20x20 the indices fit into a {@code long}; larger boards are
+ * covered by the {@link BigInteger} variants.</p>
+ */
+public class FoxHoundIndex {
+
+    private static final FoxHoundIndex[] INDICES = new FoxHoundIndex[FoxHoundUtils.MAX_DIM + 1];
+
+    private final int dim;
+    private final int hounds;
+    private final int dark;
+    private final int[] darkSquares;
+    private final int[] darkIndex;
+    /** Binomial coefficients C(n, k), or -1 where they overflow a long. */
+    private final long[][] binomial;
+    private final BigInteger[][] bigBinomial;
+    private final BigInteger bigSize;
+    private final long size;
+
+    private FoxHoundIndex(int dim) {
+        this.dim = dim;
+        this.hounds = FoxHoundBoard.houndCount(dim);
+        this.darkIndex = new int[dim * dim];
+
+        int count = 0;
+        for (int square = 0; square < dim * dim; square++) {
+            // B1 is dark: file and rank (counted from 1) add up to an even number
+            darkIndex[square] = (square % dim + square / dim + 1) % 2 == 0 ? count++ : -1;
+        }
+        this.dark = count;
+        this.darkSquares = new int[dark];
+        for (int square = 0; square < dim * dim; square++) {
+            if (darkIndex[square] >= 0) {
+                darkSquares[darkIndex[square]] = square;
+            }
+        }
+
+        this.binomial = new long[dark + 1][hounds + 1];
+        this.bigBinomial = new BigInteger[dark + 1][hounds + 1];
+        for (int n = 0; n <= dark; n++) {
+            for (int k = 0; k <= hounds; k++) {
+                BigInteger value;
+                if (k == 0) {
+                    value = BigInteger.ONE;
+                } else if (n == 0) {
+                    value = BigInteger.ZERO;
+                } else {
+                    value = bigBinomial[n - 1][k - 1].add(bigBinomial[n - 1][k]);
+                }
+                bigBinomial[n][k] = value;
+                binomial[n][k] = value.bitLength() < Long.SIZE ? value.longValue() : -1;
+            }
+        }
+
+        this.bigSize = bigBinomial[dark][hounds].multiply(BigInteger.valueOf(2L * (dark - hounds)));
+        this.size = bigSize.bitLength() < Long.SIZE ? bigSize.longValue() : -1;
+    }
+
+    public static synchronized FoxHoundIndex forDim(int dim) {
+        FoxHoundBoard.checkDimension(dim);
+        if (INDICES[dim] == null) {
+            INDICES[dim] = new FoxHoundIndex(dim);
+        }
+        return INDICES[dim];
+    }
+
+    public int dim() {
+        return dim;
+    }
+
+    /** Number of dark squares. */
+    public int darkCount() {
+        return dark;
+    }
+
+    public int darkSquare(int darkIndex) {
+        return darkSquares[darkIndex];
+    }
+
+    /** @return the dark index of the square, or -1 for a light square */
+    public int darkIndex(int square) {
+        return darkIndex[square];
+    }
+
+    public boolean fitsInLong() {
+        return size >= 0;
+    }
+
+    /** Number of ranked positions; only valid if {@link #fitsInLong()}. */
+    public long size() {
+        checkLong();
+        return size;
+    }
+
+    public BigInteger bigSize() {
+        return bigSize;
+    }
+
+    /** @return the index of the position, or -1 if a figure is on a light square or the setup is incomplete */
+    public long rank(FoxHoundBoard board, char turn) {
+        checkLong();
+        checkBoard(board);
+        long combination = 0;
+        int k = 0;
+        int below = 0;
+        int fox = board.fox();
+        for (int w = 0; w < board.words(); w++) {
+            for (long bits = board.houndWord(w); bits != 0; bits &= bits - 1) {
+                int square = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (darkIndex[square] < 0 || k == hounds) {
+                    return -1;
+                }
+                combination += binomial[darkIndex[square]][++k];
+                if (square < fox) {
+                    below++;
+                }
+            }
+        }
+        if (k != hounds || fox < 0 || darkIndex[fox] < 0) {
+            return -1;
+        }
+        return (combination * (dark - hounds) + darkIndex[fox] - below) * 2 + side(turn);
+    }
+
+    /** @return the index of the position, or null if it cannot be ranked */
+    public BigInteger bigRank(FoxHoundBoard board, char turn) {
+        checkBoard(board);
+        BigInteger combination = BigInteger.ZERO;
+        int k = 0;
+        int below = 0;
+        int fox = board.fox();
+        for (int w = 0; w < board.words(); w++) {
+            for (long bits = board.houndWord(w); bits != 0; bits &= bits - 1) {
+                int square = (w << 6) + Long.numberOfTrailingZeros(bits);
+                if (darkIndex[square] < 0 || k == hounds) {
+                    return null;
+                }
+                combination = combination.add(bigBinomial[darkIndex[square]][++k]);
+                if (square < fox) {
+                    below++;
+                }
+            }
+        }
+        if (k != hounds || fox < 0 || darkIndex[fox] < 0) {
+            return null;
+        }
+        return combination.multiply(BigInteger.valueOf(dark - hounds))
+                .add(BigInteger.valueOf(darkIndex[fox] - below)).shiftLeft(1).add(BigInteger.valueOf(side(turn)));
+    }
+
+    /**
+     * Set up {@code board} with the position of the given index.
+     *
+     * @return the side to move
+     */
+    public char unrank(long index, FoxHoundBoard board) {
+        checkLong();
+        checkBoard(board);
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index out of range: " + index);
+        }
+        char turn = (index & 1) == 0 ? FoxHoundUtils.FOX_FIELD : FoxHoundUtils.HOUND_FIELD;
+        index >>>= 1;
+        int foxFree = (int) (index % (dark - hounds));
+        long combination = index / (dark - hounds);
+
+        board.clear();
+        int c = dark - 1;
+        for (int k = hounds; k > 0; k--) {
+            // largest c with C(c, k) <= combination; entries that overflow are too large
+            while (binomial[c][k] < 0 || binomial[c][k] > combination) {
+                c--;
+            }
+            combination -= binomial[c][k];
+            board.addHound(darkSquares[c--]);
+        }
+        board.setFox(freeDarkSquare(board, foxFree));
+        return turn;
+    }
+
+    public char unrank(BigInteger index, FoxHoundBoard board) {
+        checkBoard(board);
+        if (index.signum() < 0 || index.compareTo(bigSize) >= 0) {
+            throw new IllegalArgumentException("Index out of range: " + index);
+        }
+        char turn = index.testBit(0) ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+        BigInteger[] split = index.shiftRight(1).divideAndRemainder(BigInteger.valueOf(dark - hounds));
+        BigInteger combination = split[0];
+
+        board.clear();
+        int c = dark - 1;
+        for (int k = hounds; k > 0; k--) {
+            while (bigBinomial[c][k].compareTo(combination) > 0) {
+                c--;
+            }
+            combination = combination.subtract(bigBinomial[c][k]);
+            board.addHound(darkSquares[c--]);
+        }
+        board.setFox(freeDarkSquare(board, split[1].intValue()));
+        return turn;
+    }
+
+    private int freeDarkSquare(FoxHoundBoard board, int free) {
+        for (int d = 0; d < dark; d++) {
+            if (!board.isHound(darkSquares[d]) && free-- == 0) {
+                return darkSquares[d];
+            }
+        }
+        throw new IllegalStateException("No free dark square left");
+    }
+
+    private static int side(char turn) {
+        switch (turn) {
+            case FoxHoundUtils.FOX_FIELD:
+                return 0;
+            case FoxHoundUtils.HOUND_FIELD:
+                return 1;
+            default:
+                throw new IllegalArgumentException("Given figure field invalid: " + turn);
+        }
+    }
+
+    private void checkLong() {
+        if (size < 0) {
+            throw new IllegalArgumentException("Indices of dimension " + dim + " do not fit into a long");
+        }
+    }
+
+    private void checkBoard(FoxHoundBoard board) {
+        if (board.dim() != dim) {
+            throw new IllegalArgumentException("Dimension mismatch: " + board.dim() + " != " + dim);
+        }
+    }
+}
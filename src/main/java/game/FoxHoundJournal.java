@@ -0,0 +1,283 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of the moves of one game. Every move is written to the
+ * file as soon as it is made, three bytes each, so a crash of the program
+ * loses nothing; {@code fsync} is batched and runs once {@code syncMoves}
+ * moves are pending or {@code syncMillis} after the first unsynced move,
+ * whichever comes first. The timed syncs of all journals share one daemon
+ * thread.
+ *
+ * <p>The file starts with a header naming the dimension, followed by move
+ * records replayed from {@link FoxHoundUtils#initialisePositions(int)} with
+ * the fox moving first. A snapshot record, holding a binary save, replaces the
+ * position, e.g. when a saved game is loaded. A record cut off by a crash ends
+ * the journal.</p>
+ */
+public class FoxHoundJournal implements AutoCloseable {
+
+    /** Journal magic, 0x89 "FJL". */
+    public static final int MAGIC = 0x89464A4C;
+    /** Version of the journal layout. */
+    public static final int VERSION = 1;
+    /** Magic, version, dimension and two reserved bytes. */
+    public static final int HEADER_BYTES = 8;
+    /** Default number of moves written before they are forced to disk. */
+    public static final int DEFAULT_SYNC_MOVES = 64;
+    /** Default time a written move may stay unsynced. */
+    public static final long DEFAULT_SYNC_MILLIS = 20;
+
+    // Record tags, stored in the top four bits of the first byte
+    private static final int MOVE_TAG = 1;
+    private static final int SNAPSHOT_TAG = 2;
+    /** Tag, origin and destination in 4 + 10 + 10 bits. */
+    private static final int MOVE_BYTES = 3;
+
+    private static ScheduledExecutorService syncer;
+
+    private final FileChannel channel;
+    private final int dim;
+    private final int syncMoves;
+    private final long syncMillis;
+    private final ByteBuffer record;
+    /** Position and side to move found when the journal was opened. */
+    private final String[] recovered;
+    private final char recoveredTurn;
+    private int unsynced;
+    private boolean syncScheduled;
+    private boolean closed;
+
+    public FoxHoundJournal(Path path, int dim) throws IOException {
+        this(path, dim, DEFAULT_SYNC_MOVES, DEFAULT_SYNC_MILLIS);
+    }
+
+    /**
+     * Open the journal for appending, creating it if needed. An existing
+     * journal must be for the same dimension; a torn last record is cut off.
+     */
+    public FoxHoundJournal(Path path, int dim, int syncMoves, long syncMillis) throws IOException {
+        FoxHoundBoard.checkDimension(dim);
+        if (syncMoves < 1 || syncMillis < 0) {
+            throw new IllegalArgumentException("Invalid sync policy: " + syncMoves + " moves, " + syncMillis + " ms");
+        }
+        this.dim = dim;
+        this.syncMoves = syncMoves;
+        this.syncMillis = syncMillis;
+        this.record = ByteBuffer.allocate(FoxHoundIO.binarySize(dim, FoxHoundBoard.houndCount(dim) + 1) + 1);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.recovered = FoxHoundUtils.initialisePositions(dim);
+
+        try {
+            if (channel.size() == 0) {
+                record.putInt(MAGIC).put((byte) VERSION).put((byte) dim).putShort((short) 0);
+                write();
+                recoveredTurn = FoxHoundUtils.FOX_FIELD;
+            } else {
+                ByteBuffer data = read(channel);
+                if (checkHeader(data) != dim) {
+                    throw new IOException("Not a journal for dimension " + dim + ": " + path);
+                }
+                recoveredTurn = replay(data, recovered);
+                channel.truncate(data.position());
+                channel.position(data.position());
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int dim() {
+        return dim;
+    }
+
+    /**
+     * Copy the position the journal held when it was opened into
+     * {@code players}, the initial position for a new journal.
+     *
+     * @return the side to move in that position
+     */
+    public char recovered(String[] players) {
+        if (players.length != recovered.length) {
+            throw new IllegalArgumentException("Invalid number of players: " + players.length);
+        }
+        System.arraycopy(recovered, 0, players, 0, players.length);
+        return recoveredTurn;
+    }
+
+    /** Append a move between two square indices. */
+    public synchronized void appendMove(int from, int to) throws IOException {
+        if (from < 0 || from >= dim * dim || to < 0 || to >= dim * dim) {
+            throw new IllegalArgumentException("Move outside the board: " + from + " " + to);
+        }
+        int value = MOVE_TAG << 20 | from << 10 | to;
+        record.put((byte) (value >>> 16)).put((byte) (value >>> 8)).put((byte) value);
+        write();
+        pending();
+    }
+
+    /** Append a move given as square names, e.g. "E8" and "D7". */
+    public void appendMove(String from, String to) throws IOException {
+        appendMove(FoxHoundBoard.parseSquare(from, dim), FoxHoundBoard.parseSquare(to, dim));
+    }
+
+    /** Append a complete position that replaces everything before it. */
+    public synchronized void appendSnapshot(String[] players, char turn) throws IOException {
+        if (players.length != FoxHoundBoard.houndCount(dim) + 1) {
+            throw new IllegalArgumentException("Invalid number of players: " + players.length);
+        }
+        record.put((byte) (SNAPSHOT_TAG << 4));
+        FoxHoundIO.writeBinary(record, players, turn, dim);
+        write();
+        pending();
+    }
+
+    /** Force everything written so far to disk. */
+    public synchronized void sync() throws IOException {
+        if (unsynced > 0 && !closed) {
+            channel.force(false);
+            unsynced = 0;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            sync();
+            closed = true;
+            channel.close();
+        }
+    }
+
+    private void write() throws IOException {
+        if (closed) {
+            throw new IOException("Journal is closed");
+        }
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+        record.clear();
+    }
+
+    // Count a written record and sync now or schedule a timed sync
+    private void pending() throws IOException {
+        if (++unsynced >= syncMoves) {
+            sync();
+        } else if (!syncScheduled) {
+            syncScheduled = true;
+            syncer().schedule(this::timedSync, syncMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void timedSync() {
+        syncScheduled = false;
+        try {
+            sync();
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+        }
+    }
+
+    private static synchronized ScheduledExecutorService syncer() {
+        if (syncer == null) {
+            syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "foxhound-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return syncer;
+    }
+
+    /**
+     * Rebuild the latest position of a journal of a board of {@code dim}
+     * into {@code players}, which is left alone if anything does not match.
+     *
+     * @return the side to move, or '#' if the file is not a journal for this board
+     */
+    public static char replay(Path path, String[] players, int dim) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer data = read(channel);
+            // boards of dimension 2k and 2k + 1 have the same number of players
+            if (checkHeader(data) != dim || players.length != FoxHoundBoard.houndCount(dim) + 1) {
+                return '#';
+            }
+            String[] replayed = FoxHoundUtils.initialisePositions(dim);
+            char turn = replay(data, replayed);
+            System.arraycopy(replayed, 0, players, 0, players.length);
+            return turn;
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+            return '#';
+        }
+    }
+
+    /** @return the dimension of the journal, or -1 if the header is invalid */
+    private static int checkHeader(ByteBuffer data) {
+        if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC || data.get() != VERSION) {
+            return -1;
+        }
+        int dim = data.get();
+        data.getShort();
+        return dim >= FoxHoundUtils.MIN_DIM && dim <= FoxHoundUtils.MAX_DIM ? dim : -1;
+    }
+
+    // Apply all complete records; the buffer is left after the last one that applied
+    private static char replay(ByteBuffer data, String[] players) {
+        int dim = data.get(5);
+        char turn = FoxHoundUtils.FOX_FIELD;
+        while (data.hasRemaining()) {
+            int start = data.position();
+            int tag = (data.get(start) & 0xFF) >>> 4;
+            if (tag == MOVE_TAG && data.remaining() >= MOVE_BYTES) {
+                int value = (data.get() & 0xFF) << 16 | (data.get() & 0xFF) << 8 | (data.get() & 0xFF);
+                int from = value >>> 10 & 0x3FF;
+                int to = value & 0x3FF;
+                int index = from < dim * dim && to < dim * dim
+                        ? FoxHoundUtils.searchKey(players, FoxHoundBoard.squareName(from, dim)) : -1;
+                if (index < 0) {
+                    data.position(start);
+                    break;
+                }
+                players[index] = FoxHoundBoard.squareName(to, dim);
+                turn = FoxHoundEngine.opponent(turn);
+            } else if (tag == SNAPSHOT_TAG) {
+                data.get();
+                char loaded = FoxHoundIO.readBinary(data, players, dim);
+                if (loaded == '#') {
+                    data.position(start);
+                    break;
+                }
+                turn = loaded;
+            } else {
+                break;
+            }
+        }
+        return turn;
+    }
+
+    private static ByteBuffer read(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journal too large: " + size + " bytes");
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) size);
+        channel.position(0);
+        while (data.hasRemaining() && channel.read(data) >= 0) {
+            // read the whole journal
+        }
+        data.flip();
+        return data;
+    }
+}
@@ -0,0 +1,194 @@
+package game;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator for {@link FoxHoundServer}. Every session is a new
+ * connection playing random legal moves until the game is decided; the
+ * moves are generated locally from the positions the server replies, and
+ * the round trip of every MOVE is timed.
+ */
+public class FoxHoundLoadClient {
+
+    /** Totals over a load run. */
+    public static class Summary {
+        public final long sessions;
+        public final long moves;
+        public final long nanos;
+        /** Sorted round trip times of all moves in nanoseconds. */
+        private final long[] latencies;
+
+        Summary(long sessions, long[] latencies, long nanos) {
+            this.sessions = sessions;
+            this.moves = latencies.length;
+            this.latencies = latencies;
+            this.nanos = nanos;
+        }
+
+        public long sessionsPerSecond() {
+            return nanos > 0 ? FoxHoundMetrics.rate(sessions, nanos, TimeUnit.SECONDS) : sessions;
+        }
+
+        public long movesPerSecond() {
+            return nanos > 0 ? FoxHoundMetrics.rate(moves, nanos, TimeUnit.SECONDS) : moves;
+        }
+
+        /** Move latency at {@code percentile} (0 to 100) in nanoseconds. */
+        public long latency(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(rank, latencies.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return sessions + " sessions, " + moves + " moves in " + nanos / 1000000 + " ms, "
+                    + sessionsPerSecond() + " sessions/s, " + movesPerSecond() + " moves/s, move latency p50 "
+                    + latency(50) / 1000 + " us, p99 " + latency(99) / 1000 + " us, max "
+                    + latency(100) / 1000 + " us";
+        }
+    }
+
+    private final String host;
+    private final int port;
+    private final int dim;
+    private final SplittableRandom random;
+    private final int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+    private long[] latencies = new long[1024];
+    private int count;
+
+    private FoxHoundLoadClient(String host, int port, int dim, SplittableRandom random) {
+        this.host = host;
+        this.port = port;
+        this.dim = dim;
+        this.random = random;
+    }
+
+    /**
+     * Play {@code sessions} sessions over {@code connections} concurrent
+     * connections against a server at {@code host:port}.
+     */
+    public static Summary run(final String host, final int port, long sessions, int connections, final int dim,
+            long seed) throws IOException {
+        FoxHoundBoard.checkDimension(dim);
+        if (connections < 1) {
+            throw new IllegalArgumentException("Invalid connection count: " + connections);
+        }
+        SplittableRandom root = new SplittableRandom(seed);
+        ExecutorService pool = FoxHoundServer.newSessionExecutor();
+        long start = System.nanoTime();
+        try {
+            List<Future<FoxHoundLoadClient>> futures = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                final FoxHoundLoadClient client = new FoxHoundLoadClient(host, port, dim, root.split());
+                final long share = sessions / connections + (c < sessions % connections ? 1 : 0);
+                futures.add(pool.submit(() -> {
+                    for (long s = 0; s < share; s++) {
+                        client.playSession();
+                    }
+                    return client;
+                }));
+            }
+
+            long[] all = new long[0];
+            for (Future<FoxHoundLoadClient> future : futures) {
+                FoxHoundLoadClient client = future.get();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + client.count);
+                System.arraycopy(client.latencies, 0, all, offset, client.count);
+            }
+            long nanos = System.nanoTime() - start;
+            Arrays.sort(all);
+            return new Summary(sessions, all, nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Load run interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Load client failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // One connection from NEW to the end of the game
+    private void playSession() throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+
+            String reply = command(in, out, FoxHoundSession.NEW + " " + dim);
+            FoxHoundBoard board = new FoxHoundBoard(dim);
+            while (reply.startsWith(FoxHoundSession.OK + " ")) {
+                String[] words = reply.split(" ");
+                char turn = words[1].charAt(0);
+                board.setPlayers(Arrays.copyOfRange(words, 2, words.length));
+                int legal = FoxHoundMoves.generate(board, turn, moves, 0);
+                if (legal == 0) {
+                    break;
+                }
+                int move = moves[random.nextInt(legal)];
+
+                long begin = System.nanoTime();
+                reply = command(in, out, FoxHoundSession.MOVE + " "
+                        + FoxHoundBoard.squareName(FoxHoundMoves.from(move), dim) + " "
+                        + FoxHoundBoard.squareName(FoxHoundMoves.to(move), dim));
+                record(System.nanoTime() - begin);
+            }
+            if (!reply.startsWith(FoxHoundSession.OVER + " ")) {
+                throw new IOException("Unexpected reply: " + reply);
+            }
+            command(in, out, FoxHoundSession.QUIT);
+        }
+    }
+
+    private static String command(BufferedReader in, Writer out, String command) throws IOException {
+        out.append(command).append('\n').flush();
+        String reply = in.readLine();
+        if (reply == null) {
+            throw new IOException("Connection closed by the server");
+        }
+        return reply;
+    }
+
+    private void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, 2 * count);
+        }
+        latencies[count++] = nanos;
+    }
+
+    /** Usage: {@code FoxHoundLoadClient <host> <port> <sessions> [connections] [dim] [seed]}. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: FoxHoundLoadClient <host> <port> <sessions> [connections] [dim] [seed]");
+            return;
+        }
+        long sessions = Long.parseLong(args[2]);
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        int dim = args.length > 4 ? Integer.parseInt(args[4]) : FoxHoundUtils.DEFAULT_DIM;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+        System.out.println(run(args[0], Integer.parseInt(args[1]), sessions, connections, dim, seed));
+    }
+}
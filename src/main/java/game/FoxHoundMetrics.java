@@ -0,0 +1,150 @@
+package game;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Call counts and latency histograms of the hot paths of the game. Off
+ * unless the JVM runs with {@code -Dfoxhound.metrics=true}; the switch is a
+ * constant, so with metrics off the JIT drops the timing calls altogether.
+ *
+ * <p>With {@code -Dfoxhound.metrics.dump=<file>} a snapshot is written to
+ * the file every {@code foxhound.metrics.period} milliseconds (10 seconds by
+ * default), as JSON if the file name ends in {@code .json} and as text
+ * otherwise.</p>
+ *
+ * <pre>
+ * long start = FoxHoundMetrics.start();
+ * ...
+ * FoxHoundMetrics.stop(FoxHoundMetrics.IS_VALID_MOVE, start);
+ * </pre>
+ */
+public class FoxHoundMetrics {
+
+    /** Whether metrics are recorded, fixed at startup. */
+    public static final boolean ENABLED = Boolean.getBoolean("foxhound.metrics");
+
+    public static final String DUMP_PROPERTY = "foxhound.metrics.dump";
+    public static final String PERIOD_PROPERTY = "foxhound.metrics.period";
+    public static final long DEFAULT_PERIOD_MILLIS = 10000;
+
+    public static final FoxHoundHistogram IS_VALID_MOVE = new FoxHoundHistogram("isValidMove");
+    public static final FoxHoundHistogram IS_HOUND_WIN = new FoxHoundHistogram("isHoundWin");
+    public static final FoxHoundHistogram SAVE_GAME = new FoxHoundHistogram("saveGame");
+    public static final FoxHoundHistogram LOAD_GAME = new FoxHoundHistogram("loadGame");
+    public static final FoxHoundHistogram DISPLAY_BOARD = new FoxHoundHistogram("displayBoard");
+
+    private static final FoxHoundHistogram[] ALL = { IS_VALID_MOVE, IS_HOUND_WIN, SAVE_GAME, LOAD_GAME,
+            DISPLAY_BOARD };
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private static ScheduledExecutorService dumper;
+
+    private FoxHoundMetrics() {
+    }
+
+    /** Start of a timed call, 0 with metrics off. */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /** Record the time since {@code start} in {@code histogram}. */
+    public static void stop(FoxHoundHistogram histogram, long start) {
+        if (ENABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Events per {@code unit} of {@code count} events in {@code nanos}
+     * nanoseconds, 0 if no time passed. Worked out in double arithmetic, as
+     * the count times a billion overflows a long past about 9.2e9 events.
+     */
+    public static long rate(long count, long nanos, TimeUnit unit) {
+        return nanos > 0 ? (long) (count / ((double) nanos / unit.toNanos(1))) : 0;
+    }
+
+    public static void reset() {
+        for (FoxHoundHistogram histogram : ALL) {
+            histogram.reset();
+        }
+    }
+
+    /** One line per histogram, times in microseconds. */
+    public static String text() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "%-14s %10s %10s %10s %10s %10s %10s %10s%n", "us", "count", "mean", "p50", "p90",
+                "p99", "p99.9", "max"));
+        for (FoxHoundHistogram histogram : ALL) {
+            text.append(String.format(Locale.ROOT, "%-14s %10d %10.1f", histogram.name(), histogram.count(),
+                    histogram.mean() / 1000.0));
+            for (double percentile : PERCENTILES) {
+                text.append(String.format(Locale.ROOT, " %10.1f", histogram.percentile(percentile) / 1000.0));
+            }
+            text.append(String.format(Locale.ROOT, " %10.1f%n", histogram.max() / 1000.0));
+        }
+        return text.toString();
+    }
+
+    /** All histograms as one JSON object, times in nanoseconds. */
+    public static String json() {
+        StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < ALL.length; i++) {
+            FoxHoundHistogram histogram = ALL[i];
+            json.append(i == 0 ? "" : ",").append('"').append(histogram.name()).append("\":{\"count\":")
+                    .append(histogram.count()).append(",\"mean\":").append(histogram.mean());
+            for (double percentile : PERCENTILES) {
+                json.append(",\"p").append(percentile == (long) percentile ? Long.toString((long) percentile)
+                        : Double.toString(percentile)).append("\":").append(histogram.percentile(percentile));
+            }
+            json.append(",\"max\":").append(histogram.max()).append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    /** Write a snapshot to {@code path}, replacing the previous one only once complete. */
+    public static void dump(Path path) throws IOException {
+        String snapshot = path.getFileName().toString().endsWith(".json") ? json() + "\n" : text();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, snapshot.getBytes(StandardCharsets.US_ASCII));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Start the periodic dump if metrics are on and a dump file is set. */
+    public static synchronized void startPeriodicDump() {
+        String file = System.getProperty(DUMP_PROPERTY);
+        if (!ENABLED || file == null || dumper != null) {
+            return;
+        }
+        final Path path = Paths.get(file);
+        long period = Long.getLong(PERIOD_PROPERTY, DEFAULT_PERIOD_MILLIS);
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "foxhound-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            try {
+                dump(path);
+            } catch (IOException x) {
+                System.err.format("IOException: %s%n", x);
+            }
+        }, period, period, TimeUnit.MILLISECONDS);
+        // and once more for the last period
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                dump(path);
+            } catch (IOException x) {
+                System.err.format("IOException: %s%n", x);
+            }
+        }));
+    }
+}
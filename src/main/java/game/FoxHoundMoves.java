@@ -0,0 +1,122 @@
+package game;
+
+/**
+ * Legal move generation on a {@link FoxHoundBoard}. Moves are written into a
+ * caller supplied buffer as packed ints holding the origin and destination
+ * square, and nothing is allocated per call.
+ */
+public class FoxHoundMoves {
+
+    /** Number of bits used per square index in an encoded move. */
+    public static final int SQUARE_BITS = 10;
+    /** Mask to extract a single square index from an encoded move. */
+    public static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+    /** Upper bound of legal moves for either side on any board. */
+    public static final int MAX_MOVES = 2 * FoxHoundBoard.houndCount(FoxHoundUtils.MAX_DIM);
+
+    private static final int WORD_SHIFT = 6;
+
+    public static int encode(int from, int to) {
+        return from | (to << SQUARE_BITS);
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return move >>> SQUARE_BITS;
+    }
+
+    public static String toString(int move, int dim) {
+        return FoxHoundBoard.squareName(from(move), dim) + " " + FoxHoundBoard.squareName(to(move), dim);
+    }
+
+    /**
+     * Write all legal moves of the given side into {@code moves} starting at
+     * {@code offset}, ordered by origin and then destination square.
+     *
+     * @return the number of moves written
+     */
+    public static int generate(FoxHoundBoard board, char fh, int[] moves, int offset) {
+        switch (fh) {
+            case FoxHoundUtils.FOX_FIELD:
+                return foxMoves(board, moves, offset);
+            case FoxHoundUtils.HOUND_FIELD:
+                return houndMoves(board, moves, offset);
+            default:
+                throw new IllegalArgumentException("Given figure field invalid: " + fh);
+        }
+    }
+
+    public static int foxMoves(FoxHoundBoard board, int[] moves, int offset) {
+        int fox = board.fox();
+        if (fox < 0) {
+            return 0;
+        }
+        return addTargets(board, fox, false, moves, offset) - offset;
+    }
+
+    public static int houndMoves(FoxHoundBoard board, int[] moves, int offset) {
+        int n = offset;
+        for (int w = 0; w < board.words(); w++) {
+            long bits = board.houndWord(w);
+            while (bits != 0) {
+                int from = (w << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+                n = addTargets(board, from, true, moves, n);
+                bits &= bits - 1;
+            }
+        }
+        return n - offset;
+    }
+
+    /** True if the given side has at least one legal move. */
+    public static boolean hasMoves(FoxHoundBoard board, char fh) {
+        if (fh == FoxHoundUtils.FOX_FIELD) {
+            return board.fox() >= 0 && !board.isFoxTrapped();
+        }
+        for (int w = 0; w < board.words(); w++) {
+            long bits = board.houndWord(w);
+            while (bits != 0) {
+                int from = (w << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+                if (hasTargets(board, from)) {
+                    return true;
+                }
+                bits &= bits - 1;
+            }
+        }
+        return false;
+    }
+
+    private static int addTargets(FoxHoundBoard board, int from, boolean forwardOnly, int[] moves, int n) {
+        int dim = board.dim();
+        // Only the words covering the neighbouring ranks can hold targets
+        int first = forwardOnly ? from + dim - 1 : from - dim - 1;
+        int firstWord = Math.max(first, 0) >>> WORD_SHIFT;
+        int lastWord = Math.min((from + dim + 1) >>> WORD_SHIFT, board.words() - 1);
+
+        for (int w = firstWord; w <= lastWord; w++) {
+            long mask = forwardOnly ? board.forwardWord(from, w) : board.neighbourWord(from, w);
+            long bits = mask & ~board.occupied(w);
+            while (bits != 0) {
+                int to = (w << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+                moves[n++] = encode(from, to);
+                bits &= bits - 1;
+            }
+        }
+        return n;
+    }
+
+    private static boolean hasTargets(FoxHoundBoard board, int from) {
+        int dim = board.dim();
+        int firstWord = (from + dim - 1) >>> WORD_SHIFT;
+        int lastWord = Math.min((from + dim + 1) >>> WORD_SHIFT, board.words() - 1);
+
+        for (int w = firstWord; w <= lastWord; w++) {
+            if ((board.forwardWord(from, w) & ~board.occupied(w)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,324 @@
+package game;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Iterator;
+
+/**
+ * Game server on one selector thread, speaking the line protocol of
+ * {@link FoxHoundSession}. A client may send many commands in one packet:
+ * every complete line read in one readiness event is run, and the replies
+ * are gathered and sent with a single write. A connection whose replies
+ * cannot be written out is not read until they are, so a client that does
+ * not read cannot make the server buffer without bound.
+ *
+ * <p>With a {@link FoxHoundSessionStore}, {@code GAME <id>} switches the
+ * connection to the stored game {@code id}, so a game outlives the
+ * connection and idle games are hibernated to disk.</p>
+ *
+ * <p>BEST runs on the selector thread and holds up every other connection
+ * for its thinking time, so bots should keep it short.</p>
+ */
+public class FoxHoundNioServer implements AutoCloseable {
+
+    /** Command switching a connection to a stored game. */
+    public static final String GAME = "GAME";
+    /** Stored games unused for this long are hibernated. */
+    public static final long IDLE_MILLIS = 60000;
+    private static final long IDLE_CHECK_MILLIS = 1000;
+
+    private static final int READ_BYTES = 1 << 14;
+    private static final int WRITE_BYTES = 1 << 14;
+
+    // State of one connection, attached to its key
+    private static final class Connection {
+        final FoxHoundSession session;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BYTES);
+        ByteBuffer out = ByteBuffer.allocate(WRITE_BYTES);
+        final StringBuilder reply = new StringBuilder();
+        String game;
+        boolean closing;
+
+        Connection(int dim) {
+            this.session = new FoxHoundSession(dim);
+            out.flip();
+        }
+    }
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final int dim;
+    private final FoxHoundSessionStore store;
+    private final Thread loop;
+    private volatile boolean closed;
+    private long opened;
+    private long commands;
+
+    /** Listen on {@code port}, 0 for any free port. */
+    public FoxHoundNioServer(int port, int dim) throws IOException {
+        this(port, dim, null);
+    }
+
+    /** Server that also serves the games of {@code store}, which may be null. */
+    public FoxHoundNioServer(int port, int dim, FoxHoundSessionStore store) throws IOException {
+        FoxHoundBoard.checkDimension(dim);
+        this.dim = dim;
+        this.store = store;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        try {
+            server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            server.bind(new InetSocketAddress(port), 1024);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+        this.loop = new Thread(this::run, "foxhound-selector");
+    }
+
+    public int port() {
+        return server.socket().getLocalPort();
+    }
+
+    /** Connections accepted since the start. */
+    public synchronized long sessionsOpened() {
+        return opened;
+    }
+
+    /** Commands run since the start. */
+    public synchronized long commands() {
+        return commands;
+    }
+
+    public FoxHoundNioServer start() {
+        loop.start();
+        return this;
+    }
+
+    private void run() {
+        long idleCheck = System.nanoTime();
+        try {
+            while (!closed) {
+                selector.select(IDLE_CHECK_MILLIS);
+                if (store != null && System.nanoTime() - idleCheck > IDLE_CHECK_MILLIS * 1000000L) {
+                    store.hibernateIdle(IDLE_MILLIS);
+                    idleCheck = System.nanoTime();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isWritable()) {
+                                write(key);
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                read(key);
+                            }
+                        }
+                    } catch (IOException e) {
+                        // the client went away
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.register(selector, SelectionKey.OP_READ, new Connection(dim));
+        synchronized (this) {
+            opened++;
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer in = connection.in;
+        int read = channel.read(in);
+        if (read < 0) {
+            close(key);
+            return;
+        }
+
+        // run every complete line, the rest waits for the next read
+        byte[] array = in.array();
+        int start = 0;
+        int count = 0;
+        for (int i = 0; i < in.position() && !connection.closing; i++) {
+            if (array[i] == '\n') {
+                String line = new String(array, start, i - start, StandardCharsets.US_ASCII);
+                connection.closing = !handle(connection, line);
+                connection.reply.append('\n');
+                start = i + 1;
+                count++;
+            }
+        }
+        if (!connection.closing && in.position() - start > FoxHoundServer.MAX_LINE) {
+            connection.reply.append(FoxHoundSession.ERR).append(" line too long\n");
+            connection.closing = true;
+        }
+        in.limit(in.position()).position(start);
+        in.compact();
+        synchronized (this) {
+            commands += count;
+        }
+
+        if (connection.reply.length() > 0) {
+            queue(connection);
+            write(key);
+        }
+    }
+
+    // Run a command on the connection's own session or its stored game
+    private boolean handle(Connection connection, String line) {
+        StringBuilder reply = connection.reply;
+        if (store != null && line.regionMatches(true, 0, GAME + " ", 0, GAME.length() + 1)) {
+            connection.game = line.substring(GAME.length() + 1).trim();
+            line = FoxHoundSession.STATE;
+        }
+        if (connection.game == null) {
+            return connection.session.handle(line, reply);
+        }
+        try {
+            return store.handle(connection.game, line, reply);
+        } catch (IllegalArgumentException e) {
+            connection.game = null;
+            reply.append(FoxHoundSession.ERR).append(' ').append(e.getMessage());
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+            connection.game = null;
+            reply.append(FoxHoundSession.ERR).append(" game not available");
+        }
+        return true;
+    }
+
+    // Move the gathered replies to the output buffer, which grows if needed
+    private static void queue(Connection connection) {
+        StringBuilder reply = connection.reply;
+        ByteBuffer out = connection.out;
+        if (out.capacity() - out.remaining() < reply.length()) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * out.capacity(), out.remaining() + reply.length()));
+            larger.put(out).flip();
+            out = larger;
+            connection.out = larger;
+        }
+        out.compact();
+        for (int i = 0; i < reply.length(); i++) {
+            out.put((byte) reply.charAt(i));
+        }
+        out.flip();
+        reply.setLength(0);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        Connection connection = (Connection) key.attachment();
+        ByteBuffer out = connection.out;
+        ((SocketChannel) key.channel()).write(out);
+        if (out.hasRemaining()) {
+            // wait until the client reads before taking more commands
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else if (connection.closing) {
+            close(key);
+        } else {
+            if (out.capacity() > WRITE_BYTES) {
+                // give back what a burst of replies took
+                connection.out = ByteBuffer.allocate(WRITE_BYTES);
+                connection.out.flip();
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private static void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+    }
+
+    /** Stop serving and close every connection. */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (loop.isAlive()) {
+            selector.wakeup();
+            try {
+                loop.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            shutdown();
+        }
+    }
+
+    // Only ever run by the selector thread, or once it has stopped
+    private void shutdown() {
+        for (SelectionKey key : selector.keys()) {
+            close(key);
+        }
+        try {
+            selector.close();
+            server.close();
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+        }
+    }
+
+    /**
+     * Usage: {@code FoxHoundNioServer [port] [dim] [store directory] [games in memory]};
+     * serves until killed.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : FoxHoundServer.DEFAULT_PORT;
+        int dim = args.length > 1 ? Integer.parseInt(args[1]) : FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundSessionStore store = null;
+        if (args.length > 2) {
+            int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 100000;
+            store = new FoxHoundSessionStore(Paths.get(args[2]), capacity, dim);
+        }
+        final FoxHoundNioServer server = new FoxHoundNioServer(port, dim, store).start();
+        if (store != null) {
+            final FoxHoundSessionStore games = store;
+            // games in memory are written out when the server is stopped
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException x) {
+                    System.err.format("IOException: %s%n", x);
+                }
+                games.close();
+            }));
+        }
+        System.out.println("Serving " + dim + "x" + dim + " games on port " + server.port());
+        server.loop.join();
+    }
+}
@@ -0,0 +1,142 @@
+package game;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP search: the calling thread and a number of helper threads run the
+ * same iterative deepening search on one shared {@link FoxHoundTable}. The
+ * helpers start at alternating depths and with a different root move first,
+ * and their table entries let the main search cut off earlier.
+ */
+public class FoxHoundParallelSearch implements AutoCloseable {
+
+    /** Default number of search threads. */
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    private static final String[] BENCH_FILES = { "data/game01.txt", "data/game02.txt", "data/game03.txt" };
+    private static final int BENCH_DEPTH = 18;
+
+    private final int dim;
+    private final FoxHoundTable table;
+    private final AtomicBoolean abort = new AtomicBoolean();
+    private final FoxHoundEngine[] engines;
+    private final ExecutorService helpers;
+
+    public FoxHoundParallelSearch(int dim, int threads) {
+        this(dim, threads, new FoxHoundTable());
+    }
+
+    public FoxHoundParallelSearch(int dim, int threads, FoxHoundTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid thread count: " + threads);
+        }
+        this.dim = dim;
+        this.table = table;
+        this.engines = new FoxHoundEngine[threads];
+        for (int i = 0; i < threads; i++) {
+            engines[i] = new FoxHoundEngine(dim, table, abort);
+        }
+        this.helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, r -> {
+            Thread thread = new Thread(r, "foxhound-search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    public int threads() {
+        return engines.length;
+    }
+
+    public FoxHoundTable table() {
+        return table;
+    }
+
+    public void setTablebase(FoxHoundTablebaseFile tablebase) {
+        for (FoxHoundEngine engine : engines) {
+            engine.setTablebase(tablebase);
+        }
+    }
+
+    public FoxHoundEngine.Result search(String[] players, char turn, long timeMillis) {
+        return search(FoxHoundBoard.fromPlayers(players, dim), turn, timeMillis, FoxHoundEngine.MAX_PLY - 1);
+    }
+
+    /**
+     * Search with all threads until the main thread finishes. The returned
+     * result is the main thread's, with the node count summed over all threads.
+     */
+    public FoxHoundEngine.Result search(final FoxHoundBoard position, final char turn, final long timeMillis,
+            final int maxDepth) {
+        abort.set(false);
+        List<Future<FoxHoundEngine.Result>> futures = new ArrayList<>();
+        for (int i = 1; i < engines.length; i++) {
+            final FoxHoundEngine helper = engines[i];
+            final int id = i;
+            futures.add(helpers.submit(() -> helper.search(position, turn, timeMillis, maxDepth, 1 + id % 2, id)));
+        }
+
+        FoxHoundEngine.Result main = engines[0].search(position, turn, timeMillis, maxDepth, 1, 0);
+        abort.set(true);
+
+        long nodes = main.nodes;
+        for (Future<FoxHoundEngine.Result> future : futures) {
+            try {
+                nodes += future.get().nodes;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+        return new FoxHoundEngine.Result(main.move, main.score, main.depth, nodes, main.nanos);
+    }
+
+    @Override
+    public void close() {
+        abort.set(true);
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    /**
+     * Measure the speedup on the saved games in data/. Usage:
+     * {@code FoxHoundParallelSearch [maxThreads] [depth]}
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_THREADS;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : BENCH_DEPTH;
+        int dim = FoxHoundUtils.DEFAULT_DIM;
+
+        for (String file : BENCH_FILES) {
+            Path path = Paths.get(file);
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            char turn = FoxHoundIO.loadGameForBoard(players, path, dim);
+            if (turn == '#') {
+                System.err.println("ERROR: Loading from file failed: " + path);
+                continue;
+            }
+            FoxHoundBoard position = FoxHoundBoard.fromPlayers(players, dim);
+
+            long baseline = 0;
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(dim, threads)) {
+                    FoxHoundEngine.Result result = search.search(position, turn, FoxHoundEngine.NO_TIME_LIMIT, depth);
+                    if (threads == 1) {
+                        baseline = result.nanos;
+                    }
+                    System.out.printf("%s threads %2d: %s, best %s, speedup %.2f%n", file, threads, result,
+                            FoxHoundMoves.toString(result.move, dim), (double) baseline / result.nanos);
+                }
+            }
+        }
+    }
+}
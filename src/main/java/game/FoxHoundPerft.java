@@ -0,0 +1,257 @@
+package game;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft: the number of move sequences of a given length from a position,
+ * counted by walking the whole game tree. A position where the fox has
+ * reached the first rank is over and has no moves.
+ *
+ * <p>The counts of the bitboard move generator in {@link FoxHoundMoves} are
+ * checked against a reference that tries every diagonal step of every piece
+ * with {@link #isReferenceMove}. The reference works on square names and
+ * plain coordinates and shares no masks or tables with
+ * {@link FoxHoundBoard}, so a bug in those shows up as a difference. "Divide" gives the count
+ * below every root move, which narrows a mismatch down to one line of
+ * play.</p>
+ */
+public class FoxHoundPerft {
+
+    private static final int[][] STEPS = { { -1, -1 }, { 1, -1 }, { -1, 1 }, { 1, 1 } };
+
+    private final FoxHoundBoard board;
+    private final int[] moves;
+
+    private FoxHoundPerft(FoxHoundBoard position, int depth) {
+        this.board = new FoxHoundBoard(position.dim());
+        this.board.copyFrom(position);
+        this.moves = new int[Math.max(1, depth) * FoxHoundMoves.MAX_MOVES];
+    }
+
+    /** Number of move sequences of {@code depth} plies, with the bitboard move generator. */
+    public static long perft(FoxHoundBoard position, char turn, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Invalid depth: " + depth);
+        }
+        return depth == 0 ? 1 : new FoxHoundPerft(position, depth).count(turn, depth, 0);
+    }
+
+    private long count(char turn, int depth, int ply) {
+        if (board.isFoxWin()) {
+            return 0;
+        }
+        int offset = ply * FoxHoundMoves.MAX_MOVES;
+        int n = FoxHoundMoves.generate(board, turn, moves, offset);
+        if (depth == 1) {
+            // the leaves need not be visited
+            return n;
+        }
+        long nodes = 0;
+        char next = FoxHoundEngine.opponent(turn);
+        for (int i = offset; i < offset + n; i++) {
+            int from = FoxHoundMoves.from(moves[i]);
+            int to = FoxHoundMoves.to(moves[i]);
+            board.move(from, to);
+            nodes += count(next, depth - 1, ply + 1);
+            board.move(to, from);
+        }
+        return nodes;
+    }
+
+    /**
+     * Number of move sequences of {@code depth} plies, with the rules of
+     * {@link #isReferenceMove}. Slow; for checking only.
+     */
+    public static long referencePerft(int dim, String[] players, char turn, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Invalid depth: " + depth);
+        }
+        if (depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (String[] move : referenceMoves(dim, players, turn)) {
+            int piece = FoxHoundUtils.searchKey(players, move[0]);
+            players[piece] = move[1];
+            nodes += referencePerft(dim, players, FoxHoundEngine.opponent(turn), depth - 1);
+            players[piece] = move[0];
+        }
+        return nodes;
+    }
+
+    /**
+     * The rules of a single move in plain coordinates: a diagonal step onto a
+     * free square of the board, hounds only to the next rank up, by a piece
+     * of the side {@code fh}. Independent of {@link FoxHoundBoard}.
+     */
+    static boolean isReferenceMove(int dim, String[] players, char fh, String before, String after) {
+        int fox = players.length - 1;
+        int piece = -1;
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].equals(after)) {
+                return false;
+            }
+            if (players[i].equals(before)) {
+                piece = i;
+            }
+        }
+        if (piece < 0 || (fh != FoxHoundUtils.FOX_FIELD && fh != FoxHoundUtils.HOUND_FIELD)
+                || (piece == fox) != (fh == FoxHoundUtils.FOX_FIELD)) {
+            return false;
+        }
+        int fromFile = before.charAt(0) - 'A';
+        int fromRank = Integer.parseInt(before.substring(1));
+        int toFile = after.charAt(0) - 'A';
+        int toRank = Integer.parseInt(after.substring(1));
+        if (toFile < 0 || toFile >= dim || toRank < 1 || toRank > dim || Math.abs(toFile - fromFile) != 1) {
+            return false;
+        }
+        return fh == FoxHoundUtils.FOX_FIELD ? Math.abs(toRank - fromRank) == 1 : toRank == fromRank + 1;
+    }
+
+    // Every diagonal step of every piece of the side to move that isReferenceMove accepts
+    private static List<String[]> referenceMoves(int dim, String[] players, char turn) {
+        List<String[]> moves = new ArrayList<>();
+        if (players[players.length - 1].substring(1).equals("1")) {
+            // the fox has won
+            return moves;
+        }
+        int first = turn == FoxHoundUtils.FOX_FIELD ? players.length - 1 : 0;
+        int last = turn == FoxHoundUtils.FOX_FIELD ? players.length : players.length - 1;
+        for (int i = first; i < last; i++) {
+            char file = players[i].charAt(0);
+            int rank = Integer.parseInt(players[i].substring(1));
+            for (int[] step : STEPS) {
+                // names off the board are rejected by isReferenceMove
+                String to = (char) (file + step[0]) + "" + (rank + step[1]);
+                if (isReferenceMove(dim, players, turn, players[i], to)) {
+                    moves.add(new String[] { players[i], to });
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Perft below every root move, keyed by the move as in
+     * {@link FoxHoundMoves#toString}. The root moves are shared out over
+     * {@code threads} threads.
+     */
+    public static Map<String, Long> divide(final FoxHoundBoard position, char turn, final int depth, int threads) {
+        if (depth < 1 || threads < 1) {
+            throw new IllegalArgumentException("Invalid depth or thread count: " + depth + ", " + threads);
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        if (position.isFoxWin()) {
+            return counts;
+        }
+        int[] rootMoves = new int[FoxHoundMoves.MAX_MOVES];
+        int n = FoxHoundMoves.generate(position, turn, rootMoves, 0);
+        final char next = FoxHoundEngine.opponent(turn);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                final FoxHoundBoard child = new FoxHoundBoard(position.dim());
+                child.copyFrom(position);
+                child.move(FoxHoundMoves.from(rootMoves[i]), FoxHoundMoves.to(rootMoves[i]));
+                futures.add(pool.submit(() -> perft(child, next, depth - 1)));
+            }
+            for (int i = 0; i < n; i++) {
+                counts.put(FoxHoundMoves.toString(rootMoves[i], position.dim()), futures.get(i).get());
+            }
+            return counts;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Perft interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Perft worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Divide with the rules of {@link #isReferenceMove}, on one thread. */
+    public static Map<String, Long> referenceDivide(int dim, String[] players, char turn, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Invalid depth: " + depth);
+        }
+        Map<String, Long> counts = new TreeMap<>();
+        String[] position = players.clone();
+        for (String[] move : referenceMoves(dim, position, turn)) {
+            int piece = FoxHoundUtils.searchKey(position, move[0]);
+            position[piece] = move[1];
+            counts.put(move[0] + " " + move[1],
+                    referencePerft(dim, position, FoxHoundEngine.opponent(turn), depth - 1));
+            position[piece] = move[0];
+        }
+        return counts;
+    }
+
+    /**
+     * Usage: {@code FoxHoundPerft <depth> [dim] [save file or "start"] [threads] [check]}.
+     * Prints the count below every root move, the total and the nodes per
+     * second; with {@code check} the reference is run as well and every
+     * root move where the two differ is reported.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: FoxHoundPerft <depth> [dim] [save file or \"start\"] [threads] [check]");
+            return;
+        }
+        int depth = Integer.parseInt(args[0]);
+        int dim = args.length > 1 ? Integer.parseInt(args[1]) : FoxHoundUtils.DEFAULT_DIM;
+        String[] players = FoxHoundUtils.initialisePositions(dim);
+        char turn = FoxHoundUtils.FOX_FIELD;
+        if (args.length > 2 && !args[2].equals("start")) {
+            turn = FoxHoundIO.loadGameForBoard(players, Paths.get(args[2]), dim);
+            if (turn == '#') {
+                System.err.println("ERROR: Loading from file failed.");
+                return;
+            }
+        }
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : FoxHoundParallelSearch.DEFAULT_THREADS;
+        boolean check = args.length > 4 && args[4].equals("check");
+
+        FoxHoundBoard position = FoxHoundBoard.fromPlayers(players, dim);
+        long start = System.nanoTime();
+        Map<String, Long> counts = divide(position, turn, depth, threads);
+        long nanos = Math.max(1, System.nanoTime() - start);
+        long total = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.println("Moves: " + counts.size());
+        System.out.println("Nodes: " + total);
+        System.out.println("Time: " + nanos / 1000000 + " ms, " + FoxHoundMetrics.rate(total, nanos, TimeUnit.SECONDS) + " nodes/s");
+
+        if (check) {
+            start = System.nanoTime();
+            Map<String, Long> reference = referenceDivide(dim, players, turn, depth);
+            nanos = Math.max(1, System.nanoTime() - start);
+            boolean same = reference.equals(counts);
+            for (String move : reference.keySet()) {
+                if (!reference.get(move).equals(counts.get(move))) {
+                    System.out.println("MISMATCH " + move + ": " + counts.get(move) + " != " + reference.get(move));
+                }
+            }
+            for (String move : counts.keySet()) {
+                if (!reference.containsKey(move)) {
+                    System.out.println("MISMATCH " + move + ": not a move of the reference");
+                }
+            }
+            System.out.println("Reference: " + (same ? "same counts" : "counts differ") + ", " + nanos / 1000000
+                    + " ms, " + FoxHoundMetrics.rate(total, nanos, TimeUnit.SECONDS) + " nodes/s");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Move choice for one side of a headless game. Policies may keep scratch
+ * state and are not thread-safe, so every thread creates its own.
+ */
+public interface FoxHoundPolicy {
+
+    /** Default search depth of {@link #search(int, int)} policies created by name. */
+    int DEFAULT_SEARCH_DEPTH = 4;
+
+    /**
+     * Choose one of the legal moves {@code moves[0..count)} for {@code turn}.
+     * The board must be left unchanged.
+     */
+    int choose(FoxHoundBoard board, char turn, int[] moves, int count, SplittableRandom random);
+
+    /** Uniformly random legal moves. */
+    static FoxHoundPolicy random() {
+        return (board, turn, moves, count, random) -> moves[random.nextInt(count)];
+    }
+
+    /** The move with the best static evaluation one ply ahead, ties broken at random. */
+    static FoxHoundPolicy greedy(int dim) {
+        final FoxHoundEngine engine = new FoxHoundEngine(dim, new FoxHoundTable(1));
+        return (board, turn, moves, count, random) -> {
+            int best = Integer.MIN_VALUE;
+            int chosen = moves[0];
+            int ties = 0;
+            for (int i = 0; i < count; i++) {
+                int from = FoxHoundMoves.from(moves[i]);
+                int to = FoxHoundMoves.to(moves[i]);
+                board.move(from, to);
+                int score = engine.evaluate(board, turn);
+                board.move(to, from);
+
+                if (score > best) {
+                    best = score;
+                    chosen = moves[i];
+                    ties = 1;
+                } else if (score == best && random.nextInt(++ties) == 0) {
+                    chosen = moves[i];
+                }
+            }
+            return chosen;
+        };
+    }
+
+    /** Fixed-depth alpha-beta search; a random root move is tried first so equal moves vary. */
+    static FoxHoundPolicy search(int dim, final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Invalid search depth: " + depth);
+        }
+        final FoxHoundEngine engine = new FoxHoundEngine(dim);
+        return (board, turn, moves, count, random) -> {
+            FoxHoundEngine.Result result = engine.search(board, turn, FoxHoundEngine.NO_TIME_LIMIT, depth, 1,
+                    random.nextInt(count));
+            return result.move >= 0 ? result.move : moves[0];
+        };
+    }
+
+    /** Policy by name: {@code random}, {@code greedy}, {@code search} or {@code search:<depth>}. */
+    static FoxHoundPolicy forName(String name, int dim) {
+        if (name.equals("random")) {
+            return random();
+        }
+        if (name.equals("greedy")) {
+            return greedy(dim);
+        }
+        if (name.equals("search")) {
+            return search(dim, DEFAULT_SEARCH_DEPTH);
+        }
+        if (name.startsWith("search:")) {
+            try {
+                return search(dim, Integer.parseInt(name.substring("search:".length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid search depth: " + name);
+            }
+        }
+        throw new IllegalArgumentException("Unknown policy: " + name);
+    }
+}
@@ -0,0 +1,245 @@
+package game;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless games between two {@link FoxHoundPolicy policies}, without any
+ * console input or rendering. Every worker thread has its own policies,
+ * random generator and board, and results are streamed to a file with one
+ * line per game: {@code <game> <winner> <plies> <final position>}, the
+ * position in the order of the save format.
+ *
+ * <p>With {@link #setStopWhenDecided} a game ends as soon as the fox has
+ * passed every hound, see {@link FoxHoundBoard#isFoxPastHounds}: the fox
+ * wins, and the plies that would only walk it to the first rank are not
+ * played.</p>
+ */
+public class FoxHoundSelfPlay {
+
+    /** Size of the per-thread output buffer before it is handed to the writer. */
+    private static final int FLUSH_CHARS = 1 << 16;
+
+    private final FoxHoundBoard board;
+    private final FoxHoundBoard start;
+    private final FoxHoundPolicy fox;
+    private final FoxHoundPolicy hounds;
+    private final SplittableRandom random;
+    private final int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+    private int plies;
+    private boolean stopWhenDecided;
+
+    public FoxHoundSelfPlay(int dim, FoxHoundPolicy fox, FoxHoundPolicy hounds, SplittableRandom random) {
+        this.start = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        this.board = new FoxHoundBoard(dim);
+        this.fox = fox;
+        this.hounds = hounds;
+        this.random = random;
+    }
+
+    /**
+     * Play one game from the initial position, fox first.
+     *
+     * @return the winner, {@link FoxHoundUtils#FOX_FIELD} or {@link FoxHoundUtils#HOUND_FIELD}
+     */
+    public char play() {
+        board.copyFrom(start);
+        plies = 0;
+        char turn = FoxHoundUtils.FOX_FIELD;
+        while (true) {
+            if (board.isFoxWin() || (stopWhenDecided && board.isFoxPastHounds())) {
+                return FoxHoundUtils.FOX_FIELD;
+            }
+            if (board.isFoxTrapped()) {
+                return FoxHoundUtils.HOUND_FIELD;
+            }
+            int count = FoxHoundMoves.generate(board, turn, moves, 0);
+            if (count == 0) {
+                // hounds that cannot move have lost
+                return FoxHoundEngine.opponent(turn);
+            }
+            FoxHoundPolicy policy = turn == FoxHoundUtils.FOX_FIELD ? fox : hounds;
+            int move = policy.choose(board, turn, moves, count, random);
+            board.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+            plies++;
+            turn = FoxHoundEngine.opponent(turn);
+        }
+    }
+
+    /** End games once the fox has passed every hound, instead of on the first rank. */
+    public void setStopWhenDecided(boolean stopWhenDecided) {
+        this.stopWhenDecided = stopWhenDecided;
+    }
+
+    /** Plies of the last game. */
+    public int plies() {
+        return plies;
+    }
+
+    /** Final position of the last game. */
+    public FoxHoundBoard board() {
+        return board;
+    }
+
+    /** Totals over a batch of games. */
+    public static class Summary {
+        public final long games;
+        public final long foxWins;
+        public final long plies;
+        public final long nanos;
+
+        Summary(long games, long foxWins, long plies, long nanos) {
+            this.games = games;
+            this.foxWins = foxWins;
+            this.plies = plies;
+            this.nanos = nanos;
+        }
+
+        public long houndWins() {
+            return games - foxWins;
+        }
+
+        public long gamesPerMinute() {
+            return nanos > 0 ? FoxHoundMetrics.rate(games, nanos, TimeUnit.MINUTES) : games;
+        }
+
+        @Override
+        public String toString() {
+            return games + " games, fox " + foxWins + ", hounds " + houndWins() + ", "
+                    + String.format("%.2f", games > 0 ? (double) plies / games : 0.0) + " plies/game, "
+                    + gamesPerMinute() + " games/min, " + nanos / 1000000 + " ms";
+        }
+    }
+
+    /**
+     * Play {@code games} games on {@code threads} threads and write one line
+     * per game to {@code out}. Thread {@code t} plays the games numbered
+     * {@code t, t + threads, ...} with a random generator split from
+     * {@code seed}, so a run is reproducible for a fixed thread count; the
+     * order of the lines in the file is not.
+     */
+    public static Summary run(final int dim, long games, int threads, final String foxPolicy,
+            final String houndPolicy, long seed, Writer out) throws IOException {
+        return run(dim, games, threads, foxPolicy, houndPolicy, seed, false, out);
+    }
+
+    /** Run with games ending once decided, see {@link #setStopWhenDecided}. */
+    public static Summary run(final int dim, long games, int threads, final String foxPolicy,
+            final String houndPolicy, long seed, final boolean stopWhenDecided, Writer out) throws IOException {
+        FoxHoundBoard.checkDimension(dim);
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid thread count: " + threads);
+        }
+        // fail on bad names before any thread starts
+        FoxHoundPolicy.forName(foxPolicy, dim);
+        FoxHoundPolicy.forName(houndPolicy, dim);
+
+        SplittableRandom root = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final SplittableRandom random = root.split();
+                final long first = t;
+                final long step = threads;
+                futures.add(pool.submit(() -> {
+                    FoxHoundSelfPlay game = new FoxHoundSelfPlay(dim, FoxHoundPolicy.forName(foxPolicy, dim),
+                            FoxHoundPolicy.forName(houndPolicy, dim), random);
+                    game.setStopWhenDecided(stopWhenDecided);
+                    return game.playAll(first, games, step, out);
+                }));
+            }
+
+            long foxWins = 0;
+            long plies = 0;
+            for (Future<long[]> future : futures) {
+                long[] totals = future.get();
+                foxWins += totals[0];
+                plies += totals[1];
+            }
+            out.flush();
+            return new Summary(games, foxWins, plies, System.nanoTime() - start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Self-play interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Self-play worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Plays games first, first + step, ... below end; returns {fox wins, plies}
+    private long[] playAll(long first, long end, long step, Writer out) throws IOException {
+        StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 256);
+        long foxWins = 0;
+        long totalPlies = 0;
+        for (long id = first; id < end; id += step) {
+            char winner = play();
+            if (winner == FoxHoundUtils.FOX_FIELD) {
+                foxWins++;
+            }
+            totalPlies += plies;
+
+            buffer.append(id).append(' ').append(winner).append(' ').append(plies);
+            for (String square : board.toPlayers()) {
+                buffer.append(' ').append(square);
+            }
+            buffer.append('\n');
+            if (buffer.length() >= FLUSH_CHARS) {
+                write(out, buffer);
+            }
+        }
+        write(out, buffer);
+        return new long[] { foxWins, totalPlies };
+    }
+
+    private static void write(Writer out, StringBuilder buffer) throws IOException {
+        synchronized (out) {
+            out.append(buffer);
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Usage: {@code FoxHoundSelfPlay <games> <output> [dim] [fox policy] [hound policy] [threads] [seed] [early]}
+     * with the policies {@code random}, {@code greedy}, {@code search} or {@code search:<depth>}; with
+     * {@code early} games end once decided.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: FoxHoundSelfPlay <games> <output> [dim] [fox policy] [hound policy]"
+                    + " [threads] [seed] [early]");
+            return;
+        }
+        long games = Long.parseLong(args[0]);
+        Path path = Paths.get(args[1]);
+        int dim = args.length > 2 ? Integer.parseInt(args[2]) : FoxHoundUtils.DEFAULT_DIM;
+        String foxPolicy = args.length > 3 ? args[3] : "random";
+        String houndPolicy = args.length > 4 ? args[4] : "random";
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : FoxHoundParallelSearch.DEFAULT_THREADS;
+        long seed = args.length > 6 ? Long.parseLong(args[6]) : System.nanoTime();
+        boolean early = args.length > 7 && args[7].equals("early");
+
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            Summary summary = run(dim, games, threads, foxPolicy, houndPolicy, seed, early, out);
+            System.out.println(foxPolicy + " fox vs " + houndPolicy + " hounds on " + dim + "x" + dim + ": " + summary);
+        }
+    }
+}
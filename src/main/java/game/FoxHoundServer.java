@@ -0,0 +1,180 @@
+package game;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Game server with one {@link FoxHoundSession} per TCP connection, each
+ * served by its own thread with plain blocking IO. On a JVM with virtual
+ * threads (Java 21) every session gets a virtual thread, so thousands of
+ * idle connections cost little more than their buffers; older JVMs fall back
+ * to a cached pool of platform threads.
+ *
+ * <p>Replies to pipelined commands are flushed together once no more input
+ * is buffered.</p>
+ */
+public class FoxHoundServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 7878;
+    /** Longest command line accepted; the session is closed after a longer one. */
+    public static final int MAX_LINE = 256;
+
+    private static final int BUFFER_CHARS = 4096;
+
+    private final ServerSocket server;
+    private final int dim;
+    private final ExecutorService sessions;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong opened = new AtomicLong();
+    private final Thread acceptor;
+
+    /** Listen on {@code port} of the loopback and other addresses, 0 for any free port. */
+    public FoxHoundServer(int port, int dim) throws IOException {
+        FoxHoundBoard.checkDimension(dim);
+        this.dim = dim;
+        this.server = new ServerSocket();
+        this.server.setReuseAddress(true);
+        this.server.bind(new InetSocketAddress(port), 1024);
+        this.sessions = newSessionExecutor();
+        this.acceptor = new Thread(this::accept, "foxhound-accept");
+    }
+
+    /** One virtual thread per task where the JVM has them. */
+    static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "foxhound-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    /** Sessions opened since the start. */
+    public long sessionsOpened() {
+        return opened.get();
+    }
+
+    /** Sessions currently connected. */
+    public int sessionsOpen() {
+        return connections.size();
+    }
+
+    public FoxHoundServer start() {
+        acceptor.start();
+        return this;
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                opened.incrementAndGet();
+                sessions.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // closed
+            } catch (IOException x) {
+                System.err.format("IOException: %s%n", x);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+                Reader in = new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII);
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            serve(in, out, new FoxHoundSession(dim));
+        } catch (SocketException e) {
+            // the client went away
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    // Command loop of one session until QUIT, end of input or an overlong line
+    static void serve(Reader in, Writer out, FoxHoundSession session) throws IOException {
+        char[] buffer = new char[BUFFER_CHARS];
+        int start = 0;
+        int end = 0;
+        StringBuilder line = new StringBuilder();
+        StringBuilder reply = new StringBuilder();
+        while (true) {
+            if (start == end) {
+                // nothing left to read without blocking: send what is pending first
+                if (reply.length() > 0) {
+                    out.append(reply).flush();
+                    reply.setLength(0);
+                }
+                end = in.read(buffer);
+                start = 0;
+                if (end < 0) {
+                    return;
+                }
+            }
+            char c = buffer[start++];
+            if (c != '\n') {
+                if (line.length() == MAX_LINE) {
+                    out.append(reply).append(FoxHoundSession.ERR).append(" line too long\n").flush();
+                    return;
+                }
+                line.append(c);
+                continue;
+            }
+            boolean open = session.handle(line.toString(), reply);
+            reply.append('\n');
+            line.setLength(0);
+            if (!open) {
+                out.append(reply).flush();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            server.close();
+        } finally {
+            for (Socket socket : connections) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // closing anyway
+                }
+            }
+            sessions.shutdownNow();
+        }
+    }
+
+    /** Usage: {@code FoxHoundServer [port] [dim]}; serves until killed. */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int dim = args.length > 1 ? Integer.parseInt(args[1]) : FoxHoundUtils.DEFAULT_DIM;
+        FoxHoundServer server = new FoxHoundServer(port, dim).start();
+        System.out.println("Serving " + dim + "x" + dim + " games on port " + server.port());
+        server.acceptor.join();
+    }
+}
@@ -0,0 +1,227 @@
+package game;
+
+/**
+ * One game played through text commands, one command per line and one reply
+ * line per command. This is the protocol of the network front ends; moves
+ * are checked with the same rules as the console game in
+ * {@link FoxHoundUtils}.
+ *
+ * <pre>
+ * NEW [dim]          start over, on another board size if given
+ * STATE              the position
+ * MOVE &lt;from&gt; &lt;to&gt;  move a piece of the side to move
+ * BEST [millis]      the move the engine suggests, not played
+ * SAVE               the game in the text save format
+ * LOAD &lt;save&gt;        continue from a game in the text save format
+ * QUIT               end the session
+ * </pre>
+ *
+ * A position is replied as {@code OK <turn> <squares>} while the game goes
+ * on and as {@code OVER <winner> <squares>} once it is decided, the squares
+ * in the order of the save format. SAVE is replied as {@code SAVED <save>}.
+ * Errors are replied as {@code ERR <reason>}.
+ * A session is not thread-safe.
+ */
+public class FoxHoundSession {
+
+    public static final String NEW = "NEW";
+    public static final String STATE = "STATE";
+    public static final String MOVE = "MOVE";
+    public static final String BEST = "BEST";
+    public static final String SAVE = "SAVE";
+    public static final String LOAD = "LOAD";
+    public static final String QUIT = "QUIT";
+
+    public static final String OK = "OK";
+    public static final String OVER = "OVER";
+    public static final String ERR = "ERR";
+    public static final String SAVED = "SAVED";
+    public static final String BYE = "BYE";
+
+    /** Thinking time of BEST when none is given, and its maximum. */
+    public static final long BEST_MILLIS = 100;
+    public static final long MAX_BEST_MILLIS = FoxHoundEngine.DEFAULT_TIME_MILLIS;
+    /** Sessions are many, so their engines get a small table. */
+    private static final int TABLE_BITS = 12;
+
+    private int dim;
+    private String[] players;
+    private char turn;
+    private char winner;
+    private FoxHoundEngine engine;
+
+    public FoxHoundSession(int dim) {
+        reset(dim);
+    }
+
+    public int dim() {
+        return dim;
+    }
+
+    public String[] players() {
+        return players;
+    }
+
+    public char turn() {
+        return turn;
+    }
+
+    /** @return the winner, or 0 while the game goes on */
+    public char winner() {
+        return winner;
+    }
+
+    /** Start over from the initial position of a board of {@code dim}. */
+    public void reset(int dim) {
+        setPosition(FoxHoundUtils.initialisePositions(dim), FoxHoundUtils.FOX_FIELD, dim);
+    }
+
+    /**
+     * Continue from a position, e.g. a loaded game.
+     *
+     * @throws IllegalArgumentException if the players do not fit a board of {@code dim}
+     */
+    public void setPosition(String[] players, char turn, int dim) {
+        // rejects a wrong piece count, squares off the board and overlapping pieces
+        FoxHoundBoard.fromPlayers(players, dim);
+        if (engine != null && engine.dim() != dim) {
+            engine = null;
+        }
+        this.dim = dim;
+        this.players = players;
+        this.turn = turn;
+        this.winner = decide();
+    }
+
+    /**
+     * Run one command and append the reply line, without the line end.
+     *
+     * @return false if the session should be closed
+     */
+    public boolean handle(String line, StringBuilder reply) {
+        String[] words = line.trim().split("\\s+");
+        String command = words[0].toUpperCase();
+        try {
+            switch (command) {
+                case NEW:
+                    reset(words.length > 1 ? Integer.parseInt(words[1]) : dim);
+                    state(reply);
+                    break;
+                case STATE:
+                    state(reply);
+                    break;
+                case MOVE:
+                    if (words.length != 3) {
+                        reply.append(ERR).append(" expected MOVE <from> <to>");
+                    } else {
+                        move(words[1], words[2], reply);
+                    }
+                    break;
+                case BEST:
+                    best(words.length > 1 ? Long.parseLong(words[1]) : BEST_MILLIS, reply);
+                    break;
+                case SAVE:
+                    save(reply);
+                    break;
+                case LOAD:
+                    load(words, reply);
+                    break;
+                case QUIT:
+                    reply.append(BYE);
+                    return false;
+                default:
+                    reply.append(ERR).append(" unknown command");
+            }
+        } catch (IllegalArgumentException e) {
+            // covers NumberFormatException
+            reply.append(ERR).append(' ').append(e.getMessage());
+        }
+        return true;
+    }
+
+    /** Append the position reply. */
+    public void state(StringBuilder reply) {
+        if (winner != 0) {
+            reply.append(OVER).append(' ').append(winner);
+        } else {
+            reply.append(OK).append(' ').append(turn);
+        }
+        for (String player : players) {
+            reply.append(' ').append(player);
+        }
+    }
+
+    private void move(String from, String to, StringBuilder reply) {
+        if (winner != 0) {
+            reply.append(ERR).append(" game over");
+        } else if (!FoxHoundUtils.isValidMove(dim, players, turn, from, to)) {
+            reply.append(ERR).append(" invalid move");
+        } else {
+            players[FoxHoundUtils.searchKey(players, from)] = to;
+            turn = FoxHoundEngine.opponent(turn);
+            winner = decide();
+            state(reply);
+        }
+    }
+
+    private void save(StringBuilder reply) {
+        reply.append(SAVED).append(' ').append(turn);
+        for (String player : players) {
+            reply.append(' ').append(player);
+        }
+    }
+
+    // Same layout as a text save: the side to move, then the squares
+    private void load(String[] words, StringBuilder reply) {
+        if (words.length < 3 || words[1].length() != 1
+                || words[1].charAt(0) != FoxHoundUtils.FOX_FIELD && words[1].charAt(0) != FoxHoundUtils.HOUND_FIELD) {
+            reply.append(ERR).append(" expected LOAD <turn> <squares>");
+            return;
+        }
+        String[] loaded = new String[words.length - 2];
+        System.arraycopy(words, 2, loaded, 0, loaded.length);
+        int loadedDim = FoxHoundArchive.inferDimension(loaded);
+        if (loadedDim < 0) {
+            reply.append(ERR).append(" squares fit no board");
+            return;
+        }
+        setPosition(loaded, words[1].charAt(0), loadedDim);
+        state(reply);
+    }
+
+    private void best(long millis, StringBuilder reply) {
+        if (millis < 1 || millis > MAX_BEST_MILLIS) {
+            throw new IllegalArgumentException("Thinking time out of range: " + millis);
+        }
+        if (winner != 0) {
+            reply.append(ERR).append(" game over");
+            return;
+        }
+        if (engine == null) {
+            engine = new FoxHoundEngine(dim, new FoxHoundTable(TABLE_BITS));
+        }
+        FoxHoundEngine.Result result = engine.search(players, turn, millis);
+        if (result.move < 0) {
+            reply.append(ERR).append(" no legal move");
+        } else {
+            reply.append(BEST).append(' ').append(FoxHoundBoard.squareName(FoxHoundMoves.from(result.move), dim))
+                    .append(' ').append(FoxHoundBoard.squareName(FoxHoundMoves.to(result.move), dim));
+        }
+    }
+
+    // Winner of the position, or 0
+    private char decide() {
+        if (FoxHoundUtils.isFoxWin(players[players.length - 1])) {
+            return FoxHoundUtils.FOX_FIELD;
+        }
+        if (FoxHoundUtils.isHoundWin(players, dim)) {
+            return FoxHoundUtils.HOUND_FIELD;
+        }
+        if (turn == FoxHoundUtils.HOUND_FIELD
+                && !FoxHoundMoves.hasMoves(FoxHoundBoard.fromPlayers(players, dim), FoxHoundUtils.HOUND_FIELD)) {
+            // hounds that cannot move have lost
+            return FoxHoundUtils.FOX_FIELD;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,198 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Game sessions by id, with at most {@code capacity} of them in memory. The
+ * least recently used session beyond that, or one idle for too long, is
+ * hibernated: written to {@code <directory>/<id>.fhb} in the binary save
+ * format of {@link FoxHoundIO} (12 bytes on the default board) and dropped
+ * from the heap. The next command for it loads it back, so callers never see
+ * the difference, and memory follows the number of active games rather than
+ * all games. The file stays until the session is removed and is rewritten
+ * at the next hibernation.
+ *
+ * <p>All methods are synchronized on the store, which also serialises the
+ * commands run through {@link #handle}.</p>
+ */
+public class FoxHoundSessionStore implements AutoCloseable {
+
+    /** Suffix of hibernated sessions. */
+    public static final String SUFFIX = ".fhb";
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    // A session and when it was last used
+    private static final class Stored {
+        final FoxHoundSession session;
+        long used;
+
+        Stored(FoxHoundSession session) {
+            this.session = session;
+        }
+    }
+
+    private final Path directory;
+    private final int capacity;
+    private final int dim;
+    private final LinkedHashMap<String, Stored> sessions;
+    private long hibernated;
+    private long rehydrated;
+
+    /**
+     * @param directory where hibernated sessions are kept, created if needed
+     * @param capacity most sessions kept in memory
+     * @param dim board size of new sessions
+     */
+    public FoxHoundSessionStore(Path directory, int capacity, int dim) throws IOException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        FoxHoundBoard.checkDimension(dim);
+        this.directory = Files.createDirectories(directory);
+        this.capacity = capacity;
+        this.dim = dim;
+        // access order: iteration starts at the least recently used session
+        this.sessions = new LinkedHashMap<String, Stored>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+                // a session that cannot be written stays in memory
+                return size() > FoxHoundSessionStore.this.capacity && hibernate(eldest.getKey(), eldest.getValue());
+            }
+        };
+    }
+
+    /** Sessions in memory. */
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    /** Sessions written to disk so far. */
+    public synchronized long hibernated() {
+        return hibernated;
+    }
+
+    /** Sessions loaded back from disk so far. */
+    public synchronized long rehydrated() {
+        return rehydrated;
+    }
+
+    public synchronized boolean isInMemory(String id) {
+        return sessions.containsKey(id);
+    }
+
+    /**
+     * Run one command of the session {@code id}, see {@link FoxHoundSession#handle}.
+     * A session that does not exist yet starts a new game.
+     */
+    public synchronized boolean handle(String id, String line, StringBuilder reply) throws IOException {
+        return session(id).handle(line, reply);
+    }
+
+    /**
+     * The session {@code id}, from memory, from disk or new. It must not be
+     * kept: once evicted, a later change to it would be lost.
+     */
+    public synchronized FoxHoundSession session(String id) throws IOException {
+        if (!ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid session id: " + id);
+        }
+        Stored entry = sessions.get(id);
+        if (entry == null) {
+            entry = new Stored(rehydrate(id));
+            sessions.put(id, entry);
+        }
+        entry.used = System.nanoTime();
+        return entry.session;
+    }
+
+    /** Forget a session, in memory and on disk. */
+    public synchronized void remove(String id) throws IOException {
+        sessions.remove(id);
+        Files.deleteIfExists(path(id));
+    }
+
+    /**
+     * Hibernate every session unused for {@code idleMillis}.
+     *
+     * @return the number of sessions hibernated
+     */
+    public synchronized int hibernateIdle(long idleMillis) {
+        long cutoff = System.nanoTime() - idleMillis * 1000000L;
+        int count = 0;
+        Iterator<Map.Entry<String, Stored>> entries = sessions.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Stored> entry = entries.next();
+            if (entry.getValue().used - cutoff > 0) {
+                // the rest have been used even later
+                break;
+            }
+            if (hibernate(entry.getKey(), entry.getValue())) {
+                entries.remove();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Hibernate all sessions, so that a new store on the directory continues them. */
+    @Override
+    public synchronized void close() {
+        hibernateIdle(0);
+    }
+
+    private Path path(String id) {
+        return directory.resolve(id + SUFFIX);
+    }
+
+    // Write the session; the file replaces an older one only once complete
+    private boolean hibernate(String id, Stored entry) {
+        FoxHoundSession session = entry.session;
+        Path path = path(id);
+        Path temp = directory.resolve(id + SUFFIX + ".tmp");
+        if (!FoxHoundIO.saveGameBinary(session.players(), session.turn(), session.dim(), temp)) {
+            return false;
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException x) {
+            System.err.format("IOException: %s%n", x);
+            return false;
+        }
+        hibernated++;
+        return true;
+    }
+
+    // The hibernated session, or a new game if there is none
+    private FoxHoundSession rehydrate(String id) throws IOException {
+        FoxHoundSession session = new FoxHoundSession(dim);
+        Path path = path(id);
+        if (!Files.exists(path)) {
+            return session;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        int count = buffer.remaining() < FoxHoundIO.BINARY_HEADER_BYTES ? 0 : buffer.get(7);
+        String[] players = new String[Math.max(0, count)];
+        char turn = count < 2 ? '#' : FoxHoundIO.readBinary(buffer, players);
+        try {
+            if (turn == '#') {
+                throw new IllegalArgumentException("not a binary save");
+            }
+            session.setPosition(players, turn, buffer.get(5));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt session: " + path, e);
+        }
+        rehydrated++;
+        return session;
+    }
+}
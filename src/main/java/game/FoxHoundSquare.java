@@ -0,0 +1,91 @@
+package game;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * One square of a board of a given dimension, with its name, file, rank and
+ * diagonal neighbours worked out once. There is exactly one instance per
+ * square and dimension, built on first use of the dimension, so looking up
+ * a square or its name never allocates.
+ */
+public final class FoxHoundSquare {
+
+    /** Neighbour directions, in the order of {@link #neighbour}. */
+    public static final int DOWN_LEFT = 0;
+    public static final int DOWN_RIGHT = 1;
+    public static final int UP_LEFT = 2;
+    public static final int UP_RIGHT = 3;
+
+    private static final int[][] STEPS = { { -1, -1 }, { 1, -1 }, { -1, 1 }, { 1, 1 } };
+
+    private static final AtomicReferenceArray<FoxHoundSquare[]> TABLES = new AtomicReferenceArray<>(
+            FoxHoundUtils.MAX_DIM + 1);
+
+    /** Square index, see {@link FoxHoundBoard}. */
+    public final int index;
+    /** File, 0 for A. */
+    public final int file;
+    /** Rank, counted from 1. */
+    public final int rank;
+    public final String name;
+    private final int[] neighbours;
+
+    private FoxHoundSquare(int index, int dim) {
+        this.index = index;
+        this.file = index % dim;
+        this.rank = index / dim + 1;
+        this.name = (char) ('A' + file) + Integer.toString(rank);
+        this.neighbours = new int[STEPS.length];
+        for (int d = 0; d < STEPS.length; d++) {
+            int f = file + STEPS[d][0];
+            int r = rank - 1 + STEPS[d][1];
+            neighbours[d] = f >= 0 && f < dim && r >= 0 && r < dim ? r * dim + f : -1;
+        }
+    }
+
+    /** All squares of a board of {@code dim}, by index. The array must not be changed. */
+    public static FoxHoundSquare[] table(int dim) {
+        FoxHoundSquare[] table = TABLES.get(dim);
+        if (table == null) {
+            FoxHoundBoard.checkDimension(dim);
+            table = new FoxHoundSquare[dim * dim];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = new FoxHoundSquare(i, dim);
+            }
+            // threads racing here build equal tables, the first one is kept
+            TABLES.compareAndSet(dim, null, table);
+            table = TABLES.get(dim);
+        }
+        return table;
+    }
+
+    public static FoxHoundSquare get(int index, int dim) {
+        return table(dim)[index];
+    }
+
+    /**
+     * The square named {@code coord}, e.g. "B1".
+     *
+     * @return the square, or null if the name is well-formed but off the board
+     * @throws IllegalArgumentException if the name is malformed
+     */
+    public static FoxHoundSquare parse(String coord, int dim) {
+        int index = FoxHoundBoard.parseSquare(coord, dim);
+        return index < 0 ? null : table(dim)[index];
+    }
+
+    /**
+     * Diagonal neighbour in direction {@code direction}, from
+     * {@link #DOWN_LEFT} to {@link #UP_RIGHT}; up is towards higher ranks.
+     *
+     * @return the neighbour's index, or -1 off the board
+     */
+    public int neighbour(int direction) {
+        return neighbours[direction];
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
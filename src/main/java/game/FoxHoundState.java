@@ -0,0 +1,145 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * The pieces of a running game, kept in step with its players array so
+ * that the end of the game is known after every move without a scan. Besides
+ * the square of every piece it keeps the number of free diagonal neighbours
+ * of the fox: a hound move changes it by at most one each for the square
+ * left and the square taken, and a fox move recounts four squares. The fox
+ * is trapped when the count is zero; squares off the board never count as
+ * free, at any edge and on any board size. The rank of the rearmost hound
+ * is kept as well, which tells when the fox has passed every hound.
+ */
+public class FoxHoundState {
+
+    private final int dim;
+    private final FoxHoundSquare[] squares;
+    private final String[] players;
+    /** Index into the players array of the piece on every square, or -1. */
+    private final int[] pieceAt;
+    /** Number of hounds on every rank, counted from 0. */
+    private final int[] houndsOnRank;
+    private int rearRank;
+    private int fox;
+    private int foxFree;
+
+    /**
+     * State of the pieces in {@code players}, which this state updates on
+     * every move.
+     *
+     * @throws IllegalArgumentException if the players do not fit a board of {@code dim}
+     */
+    public FoxHoundState(String[] players, int dim) {
+        this.dim = dim;
+        this.squares = FoxHoundSquare.table(dim);
+        this.players = players;
+        this.pieceAt = new int[dim * dim];
+        this.houndsOnRank = new int[dim];
+        reset();
+    }
+
+    /** Read the players array again, e.g. after a game was loaded into it. */
+    public void reset() {
+        // rejects a wrong piece count, squares off the board and overlapping pieces
+        FoxHoundBoard.fromPlayers(players, dim);
+        Arrays.fill(pieceAt, -1);
+        Arrays.fill(houndsOnRank, 0);
+        rearRank = dim;
+        for (int i = 0; i < players.length; i++) {
+            int square = FoxHoundBoard.parseSquare(players[i], dim);
+            pieceAt[square] = i;
+            if (i < players.length - 1) {
+                houndsOnRank[square / dim]++;
+                rearRank = Math.min(rearRank, square / dim);
+            }
+        }
+        fox = FoxHoundBoard.parseSquare(players[players.length - 1], dim);
+        countFoxFree();
+    }
+
+    public String[] players() {
+        return players;
+    }
+
+    public int fox() {
+        return fox;
+    }
+
+    /** Free diagonal neighbours of the fox. */
+    public int foxFreeSquares() {
+        return foxFree;
+    }
+
+    /** True if the fox has reached the first rank. */
+    public boolean isFoxWin() {
+        return fox < dim;
+    }
+
+    /** True if the fox cannot move. */
+    public boolean isFoxTrapped() {
+        return foxFree == 0;
+    }
+
+    /** True if the fox is on or below the rank of the rearmost hound, see {@link FoxHoundBoard#isFoxPastHounds}. */
+    public boolean isFoxPastHounds() {
+        return fox / dim <= rearRank;
+    }
+
+    /** Move the piece on {@code before} to {@code after}; the move must be legal. */
+    public void move(String before, String after) {
+        move(FoxHoundBoard.parseSquare(before, dim), FoxHoundBoard.parseSquare(after, dim));
+    }
+
+    /** Move the piece on square {@code from} to square {@code to}; the move must be legal. */
+    public void move(int from, int to) {
+        int piece = from < 0 ? -1 : pieceAt[from];
+        if (piece < 0 || to < 0 || pieceAt[to] >= 0) {
+            throw new IllegalArgumentException("Invalid move: " + from + " " + to);
+        }
+        pieceAt[from] = -1;
+        pieceAt[to] = piece;
+        players[piece] = squares[to].name;
+
+        if (from == fox) {
+            fox = to;
+            countFoxFree();
+        } else {
+            houndsOnRank[from / dim]--;
+            houndsOnRank[to / dim]++;
+            // hounds only move forward in play, so this scan is short
+            rearRank = Math.min(rearRank, to / dim);
+            while (houndsOnRank[rearRank] == 0) {
+                rearRank++;
+            }
+            if (isNeighbour(from, fox)) {
+                foxFree++;
+            }
+            if (isNeighbour(to, fox)) {
+                foxFree--;
+            }
+        }
+    }
+
+    private boolean isNeighbour(int a, int b) {
+        FoxHoundSquare square = squares[a];
+        for (int direction = FoxHoundSquare.DOWN_LEFT; direction <= FoxHoundSquare.UP_RIGHT; direction++) {
+            if (square.neighbour(direction) == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void countFoxFree() {
+        foxFree = 0;
+        FoxHoundSquare square = squares[fox];
+        for (int direction = FoxHoundSquare.DOWN_LEFT; direction <= FoxHoundSquare.UP_RIGHT; direction++) {
+            int neighbour = square.neighbour(direction);
+            if (neighbour >= 0 && pieceAt[neighbour] < 0) {
+                foxFree++;
+            }
+        }
+    }
+}
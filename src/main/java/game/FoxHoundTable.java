@@ -0,0 +1,97 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table shared between search threads without
+ * locks. Each entry is two longs in one flat array: the Zobrist key XOR the
+ * data word, followed by the data word. A torn or concurrently overwritten
+ * entry fails the XOR check on probe and is treated as a miss.
+ */
+public class FoxHoundTable {
+
+    /** Bound type of an exact score. */
+    public static final int EXACT = 1;
+    /** Bound type of a score that is at least the stored value. */
+    public static final int LOWER = 2;
+    /** Bound type of a score that is at most the stored value. */
+    public static final int UPPER = 3;
+
+    /** Data word returned when a probe misses. */
+    public static final long MISS = 0L;
+
+    /** Default number of entries as a power of two (4 MB). */
+    public static final int DEFAULT_BITS = 18;
+
+    private static final int MOVE_BITS = 2 * FoxHoundMoves.SQUARE_BITS;
+    private static final int NO_MOVE = (1 << MOVE_BITS) - 1;
+    private static final int DEPTH_SHIFT = MOVE_BITS;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int SCORE_SHIFT = 32;
+
+    private final long[] slots;
+    private final int mask;
+
+    public FoxHoundTable() {
+        this(DEFAULT_BITS);
+    }
+
+    /** Create a table of {@code 2^bits} entries. */
+    public FoxHoundTable(int bits) {
+        if (bits < 1 || bits > 28) {
+            throw new IllegalArgumentException("Invalid table size: 2^" + bits);
+        }
+        this.slots = new long[2 << bits];
+        this.mask = (1 << bits) - 1;
+    }
+
+    public int size() {
+        return mask + 1;
+    }
+
+    /** @return the data word stored for {@code key}, or {@link #MISS} */
+    public long probe(long key) {
+        int index = ((int) (key >>> 32) & mask) << 1;
+        long data = slots[index + 1];
+        if ((slots[index] ^ data) != key) {
+            return MISS;
+        }
+        return data;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) (key >>> 32) & mask) << 1;
+        long old = slots[index + 1];
+        // Keep deeper results for the same position
+        if ((slots[index] ^ old) == key && depth(old) > depth && bound != EXACT) {
+            return;
+        }
+
+        long data = ((long) score << SCORE_SHIFT) | ((long) bound << BOUND_SHIFT)
+                | ((long) Math.min(depth, 255) << DEPTH_SHIFT) | (move < 0 ? NO_MOVE : move);
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0L);
+    }
+
+    /** @return the stored move, or -1 if none was stored */
+    public static int move(long data) {
+        int move = (int) data & NO_MOVE;
+        return move == NO_MOVE ? -1 : move;
+    }
+
+    public static int score(long data) {
+        return (int) (data >> SCORE_SHIFT);
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+}
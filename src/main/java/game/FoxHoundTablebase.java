@@ -0,0 +1,211 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exact solution of the default 8x8 board. Every placement of the four
+ * hounds and the fox on the dark squares, with either side to move, is
+ * ranked to a dense index by {@link FoxHoundIndex} and marked as won or
+ * lost for the side to move together with the number of plies until the
+ * game ends with best play.
+ *
+ * <p>Hounds only ever move forward, so the sum of their ranks grows with
+ * every hound move. Positions are solved backwards from the most advanced
+ * hound placements, so every successor is known before it is needed.</p>
+ */
+public class FoxHoundTablebase {
+
+    /** Board dimension covered by the tablebase. */
+    public static final int DIM = FoxHoundUtils.DEFAULT_DIM;
+    /** File magic "FHTB". */
+    public static final int MAGIC = 0x46485442;
+    /** Version of the file layout. */
+    public static final int VERSION = 1;
+    /** Size of the file header in bytes. */
+    public static final int HEADER_BYTES = 24;
+    /** Default location of the tablebase file. */
+    public static final Path DEFAULT_PATH = Paths.get("data/foxhound8.tb");
+
+    private static final FoxHoundIndex INDEX = FoxHoundIndex.forDim(DIM);
+    private static final int HOUNDS = FoxHoundBoard.houndCount(DIM);
+    private static final int DARK = INDEX.darkCount();
+
+    /** Number of ranked positions. */
+    public static final long ENTRIES = INDEX.size();
+
+    private final long[] wins;
+    private final byte[] distance;
+
+    private FoxHoundTablebase() {
+        this.wins = new long[(int) ((ENTRIES + 63) / 64)];
+        this.distance = new byte[(int) ENTRIES];
+    }
+
+    /** @return the index of the position, or -1 if a figure stands on a light square */
+    public static long index(FoxHoundBoard board, char turn) {
+        return INDEX.rank(board, turn);
+    }
+
+    public boolean isWin(long index) {
+        return (wins[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /** Plies until the game ends with best play from both sides. */
+    public int distance(long index) {
+        return distance[(int) index] & 0xFF;
+    }
+
+    /** Build the full table in memory. */
+    public static FoxHoundTablebase generate() {
+        FoxHoundTablebase tablebase = new FoxHoundTablebase();
+        FoxHoundBoard board = new FoxHoundBoard(DIM);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+
+        for (int hounds : placementsByAdvancement()) {
+            // Hound moves lead to more advanced placements which are already solved,
+            // fox moves lead to hounds-to-move positions of this placement.
+            tablebase.solvePlacement(board, hounds, FoxHoundUtils.HOUND_FIELD, moves);
+            tablebase.solvePlacement(board, hounds, FoxHoundUtils.FOX_FIELD, moves);
+        }
+        return tablebase;
+    }
+
+    private void solvePlacement(FoxHoundBoard board, int hounds, char turn, int[] moves) {
+        for (int foxDark = 0; foxDark < DARK; foxDark++) {
+            if ((hounds & (1 << foxDark)) != 0) {
+                continue;
+            }
+            board.clear();
+            for (int bits = hounds; bits != 0; bits &= bits - 1) {
+                board.addHound(INDEX.darkSquare(Integer.numberOfTrailingZeros(bits)));
+            }
+            board.setFox(INDEX.darkSquare(foxDark));
+            solve(board, index(board, turn), turn, moves);
+        }
+    }
+
+    private void solve(FoxHoundBoard board, long index, char turn, int[] moves) {
+        if (board.isFoxWin()) {
+            set(index, turn == FoxHoundUtils.FOX_FIELD, 0);
+            return;
+        }
+        if (board.isFoxTrapped()) {
+            set(index, turn == FoxHoundUtils.HOUND_FIELD, 0);
+            return;
+        }
+
+        int count = FoxHoundMoves.generate(board, turn, moves, 0);
+        char next = FoxHoundEngine.opponent(turn);
+        int fastestWin = Integer.MAX_VALUE;
+        int slowestLoss = 0;
+        for (int i = 0; i < count; i++) {
+            int from = FoxHoundMoves.from(moves[i]);
+            int to = FoxHoundMoves.to(moves[i]);
+            board.move(from, to);
+            long child = index(board, next);
+            board.move(to, from);
+
+            int plies = distance(child) + 1;
+            if (!isWin(child)) {
+                fastestWin = Math.min(fastestWin, plies);
+            } else {
+                slowestLoss = Math.max(slowestLoss, plies);
+            }
+        }
+
+        // No moves at all (stuck hounds) counts as a loss
+        if (fastestWin != Integer.MAX_VALUE) {
+            set(index, true, fastestWin);
+        } else {
+            set(index, false, slowestLoss);
+        }
+    }
+
+    private void set(long index, boolean win, int plies) {
+        if (win) {
+            wins[(int) (index >>> 6)] |= 1L << index;
+        }
+        distance[(int) index] = (byte) plies;
+    }
+
+    // All hound placements as masks over the 32 dark squares, most advanced (largest rank sum) first
+    private static int[] placementsByAdvancement() {
+        int maxAdvance = HOUNDS * (DIM - 1);
+        int[] counts = new int[maxAdvance + 2];
+        int total = (int) (ENTRIES / 2 / (DARK - HOUNDS));
+        int[] placements = new int[total];
+        int[] advance = new int[total];
+
+        int n = 0;
+        int combination = (1 << HOUNDS) - 1;
+        while (n < total) {
+            int sum = 0;
+            for (int bits = combination; bits != 0; bits &= bits - 1) {
+                sum += INDEX.darkSquare(Integer.numberOfTrailingZeros(bits)) / DIM;
+            }
+            placements[n] = combination;
+            advance[n++] = sum;
+            counts[maxAdvance - sum + 1]++;
+
+            // next combination with the same number of bits (Gosper's hack)
+            int low = combination & -combination;
+            int ripple = combination + low;
+            combination = (((ripple ^ combination) >>> 2) / low) | ripple;
+        }
+
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+        int[] sorted = new int[total];
+        for (int i = 0; i < total; i++) {
+            sorted[counts[maxAdvance - advance[i]]++] = placements[i];
+        }
+        return sorted;
+    }
+
+    /** Write the table: header, win bits (little-endian words), then one distance byte per entry. */
+    public void write(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(DIM).putInt(0).putLong(ENTRIES).flip();
+            writeFully(channel, header);
+
+            ByteBuffer words = ByteBuffer.allocate(wins.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+            words.asLongBuffer().put(wins);
+            writeFully(channel, words);
+
+            writeFully(channel, ByteBuffer.wrap(distance));
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /** Generate the tablebase and write it. Usage: {@code FoxHoundTablebase [file]} */
+    public static void main(String[] args) throws IOException {
+        Path path = args.length > 0 ? Paths.get(args[0]) : DEFAULT_PATH;
+
+        long start = System.nanoTime();
+        FoxHoundTablebase tablebase = generate();
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(DIM), DIM);
+        long initial = index(board, FoxHoundUtils.FOX_FIELD);
+        System.out.println("Solved " + ENTRIES + " positions in " + millis + " ms");
+        System.out.println("Start position: " + (tablebase.isWin(initial) ? "Fox" : "Hounds") + " win in "
+                + tablebase.distance(initial) + " plies");
+
+        tablebase.write(path);
+        System.out.println("Written to " + path.toAbsolutePath());
+    }
+}
@@ -0,0 +1,72 @@
+package game;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a tablebase file written by {@link FoxHoundTablebase}.
+ * The file is memory-mapped, so opening it costs neither heap nor load time
+ * and each probe reads one bit and one byte straight from the page cache.
+ * Probes are thread-safe.
+ */
+public class FoxHoundTablebaseFile {
+
+    private final MappedByteBuffer buffer;
+    private final int winsOffset;
+    private final int distanceOffset;
+
+    private FoxHoundTablebaseFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        this.winsOffset = FoxHoundTablebase.HEADER_BYTES;
+        this.distanceOffset = winsOffset + (int) ((FoxHoundTablebase.ENTRIES + 63) / 64 * 8);
+    }
+
+    public static FoxHoundTablebaseFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            long expected = FoxHoundTablebase.HEADER_BYTES + (FoxHoundTablebase.ENTRIES + 63) / 64 * 8
+                    + FoxHoundTablebase.ENTRIES;
+            if (channel.size() != expected || buffer.getInt(0) != FoxHoundTablebase.MAGIC
+                    || buffer.getInt(4) != FoxHoundTablebase.VERSION || buffer.getInt(8) != FoxHoundTablebase.DIM
+                    || buffer.getLong(16) != FoxHoundTablebase.ENTRIES) {
+                throw new IOException("Not a valid tablebase file: " + path);
+            }
+            return new FoxHoundTablebaseFile(buffer);
+        }
+    }
+
+    public int dim() {
+        return FoxHoundTablebase.DIM;
+    }
+
+    public boolean isWin(long index) {
+        return (buffer.get(winsOffset + (int) (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    /** Plies until the game ends with best play from both sides. */
+    public int distance(long index) {
+        return buffer.get(distanceOffset + (int) index) & 0xFF;
+    }
+
+    /**
+     * Score of a position in engine terms from the point of view of the side
+     * to move, or {@code Integer.MIN_VALUE} if the position is not covered.
+     */
+    public int score(FoxHoundBoard board, char turn, int ply) {
+        if (board.dim() != FoxHoundTablebase.DIM) {
+            return Integer.MIN_VALUE;
+        }
+        long index = FoxHoundTablebase.index(board, turn);
+        if (index < 0) {
+            return Integer.MIN_VALUE;
+        }
+        int plies = ply + distance(index);
+        return isWin(index) ? FoxHoundEngine.WIN_SCORE - plies : -FoxHoundEngine.WIN_SCORE + plies;
+    }
+}
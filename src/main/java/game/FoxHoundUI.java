@@ -9,9 +9,10 @@ import java.util.Scanner;
 public class FoxHoundUI {
 
     /** Number of main menu entries. */
-    private static final int MENU_ENTRIES = 4;
+    private static final int MENU_ENTRIES = 6;
     /** Main menu display string. */
-    private static final String MAIN_MENU = "\n1. Move\n2. Save Game\n3. Load Game\n4. Exit\n\nEnter 1 - 4:";
+    private static final String MAIN_MENU = "\n1. Move\n2. Save Game\n3. Load Game\n4. Exit\n5. Computer Move\n6. Stats"
+            + "\n\nEnter 1 - 6:";
 
     /** Menu entry to select a move action. */
     public static final int MENU_MOVE = 1;
@@ -21,151 +22,148 @@ public class FoxHoundUI {
 
     public static final int MENU_LOAD_GAME = 3;
 
+    // Entries added later go after Exit, so that existing input keeps its meaning
     public static final int MENU_EXIT = 4;
 
-    public static void displayBoardFancy(String[] players, int dim) {
-        // Initial spaces
-        if (dim > 9) {
-            System.out.print("   ");
-        } else {
-            System.out.print("  ");
-        }
+    /** Menu entry to let the computer make the next move. */
+    public static final int MENU_COMPUTER_MOVE = 5;
 
-        // Print the alphabets
-        for (int i = 65; i < 65 + dim; i++) {
-            System.out.print("  " + (char) i + " ");
-        }
+    /** Menu entry to show the call counts and latencies of {@link FoxHoundMetrics}. */
+    public static final int MENU_STATS = 6;
 
-        // Trailing spaces
-        System.out.println("");
-        System.out.print("   ");
+    /** Reusable per-thread buffer a board is composed in before it is written. */
+    private static final ThreadLocal<StringBuilder> FRAME = ThreadLocal.withInitial(StringBuilder::new);
 
-        // Print the "="
-        for (int i = 0; i < dim * 4; i++) {
-            System.out.print("=");
+    public static void displayBoardFancy(String[] players, int dim) {
+        String newline = System.lineSeparator();
+        String indent = dim > 9 ? "   " : "  ";
+        char[] grid = occupancy(players, dim);
+        StringBuilder frame = frame();
+
+        // Print the alphabets
+        frame.append(indent);
+        for (int i = 0; i < dim; i++) {
+            frame.append("  ").append((char) ('A' + i)).append(' ');
         }
-        System.out.println("");
+        frame.append(newline).append("   ");
+        appendRule(frame, dim);
+        frame.append(newline);
 
         for (int i = 1; i <= dim; i++) {
-            // Check if 0 should be appended to coordintes
-            String append = "";
-            if (dim > 9 && i < 10) {
-                append = "0";
-            }
-
-            // Prints the coordinate
-            System.out.print(append + i + " ");
+            // Check if 0 should be appended to coordinates
+            String append = dim > 9 && i < 10 ? "0" : "";
+            frame.append(append).append(i).append(' ');
 
             // Print the fox or hound position
-            for (int k = 1; k <= dim; k++) {
-                String pos = (char) (k + 64) + "" + i;
-                boolean exist = false;
-                boolean isFox = false;
-                for (int j = 0; j < players.length; j++) {
-                    if (pos.equals(players[j])) {
-                        exist = true;
-                        if (j == players.length - 1) {
-                            isFox = true;
-                        }
-                        break;
-                    }
-                }
-                if (exist) {
-                    if (isFox) {
-                        System.out.print("| F ");
-                    } else {
-                        System.out.print("| H ");
-                    }
-                } else {
-                    System.out.print("|   ");
-                }
+            for (int k = 0; k < dim; k++) {
+                char figure = grid[(i - 1) * dim + k];
+                frame.append(figure == '.' ? "|   " : figure == 'F' ? "| F " : "| H ");
             }
-            System.out.print("| " + append + i);
+            frame.append("| ").append(append).append(i);
             if (i != dim) {
-                System.out.println("");
-                if (dim > 9) {
-                    System.out.print("   ");
-                } else {
-                    System.out.print("  ");
-                }
-                for (int z = 0; z < dim * 4; z++) {
-                    System.out.print("=");
-                }
-                System.out.println("");
+                frame.append(newline).append(indent);
+                appendRule(frame, dim);
+                frame.append(newline);
             }
         }
 
-        System.out.print("\n   ");
-        for (int i = 0; i < dim * 4; i++) {
-            System.out.print("=");
+        frame.append("\n   ");
+        appendRule(frame, dim);
+        frame.append(newline).append(indent);
+        for (int i = 0; i < dim; i++) {
+            frame.append("  ").append((char) ('A' + i)).append(' ');
         }
-        System.out.println("");
+        frame.append('\n').append(newline);
+        flush(frame);
+    }
 
-        if (dim > 9) {
-            System.out.print("   ");
-        } else {
-            System.out.print("  ");
-        }
-        for (int i = 65; i < 65 + dim; i++) {
-            System.out.print("  " + (char) i + " ");
+    public static void displayBoard(String[] players, int dim) {
+        long start = FoxHoundMetrics.start();
+        String newline = System.lineSeparator();
+        String indent = dim > 9 ? "   " : "  ";
+        char[] grid = occupancy(players, dim);
+        StringBuilder frame = frame();
+
+        frame.append(indent);
+        appendFiles(frame, dim);
+        frame.append('\n').append(newline);
+
+        for (int i = 1; i <= dim; i++) {
+            String append = dim > 9 && i < 10 ? "0" : "";
+            frame.append(append).append(i).append(' ');
+            frame.append(grid, (i - 1) * dim, dim);
+            frame.append(' ').append(append).append(i);
+            frame.append('\n').append(newline);
         }
-        System.out.println("\n");
 
+        frame.append(indent);
+        appendFiles(frame, dim);
+        frame.append('\n').append(newline);
+        flush(frame);
+        FoxHoundMetrics.stop(FoxHoundMetrics.DISPLAY_BOARD, start);
     }
 
-    public static void displayBoard(String[] players, int dim) {
-        if (dim > 9) {
-            System.out.print("   ");
-        } else {
-            System.out.print("  ");
+    // Contents of every square from A1 on: 'F', 'H' or '.'. Like a scan of the players
+    // array, the first player on a square decides and only exact names such as "B10" count.
+    static char[] occupancy(String[] players, int dim) {
+        if (dim <= 0) {
+            return new char[0];
         }
-        for (int i = 65; i < 65 + dim; i++) {
-            System.out.print((char) i);
+        char[] grid = new char[dim * dim];
+        Arrays.fill(grid, '.');
+        for (int j = 0; j < players.length; j++) {
+            int square = squareIndex(players[j], dim);
+            if (square >= 0 && grid[square] == '.') {
+                grid[square] = j == players.length - 1 ? 'F' : 'H';
+            }
         }
-        System.out.println("\n");
+        return grid;
+    }
 
-        for (int i = 1; i <= dim; i++) {
-            String append = "";
-            if (dim > 9 && i < 10) {
-                append = "0";
+    private static int squareIndex(String position, int dim) {
+        if (position == null || position.length() < 2 || position.charAt(1) == '0') {
+            return -1;
+        }
+        int file = position.charAt(0) - 'A';
+        if (file < 0 || file >= dim) {
+            return -1;
+        }
+        int rank = 0;
+        for (int i = 1; i < position.length(); i++) {
+            char digit = position.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
             }
-            System.out.print(append + i + " ");
-            for (int k = 1; k <= dim; k++) {
-                String pos = (char) (k + 64) + "" + i;
-                boolean exist = false;
-                boolean isFox = false;
-                for (int j = 0; j < players.length; j++) {
-                    if (pos.equals(players[j])) {
-                        exist = true;
-                        if (j == players.length - 1) {
-                            isFox = true;
-                        }
-                        break;
-                    }
-                }
-                if (exist) {
-                    if (isFox) {
-                        System.out.print('F');
-                    } else {
-                        System.out.print('H');
-                    }
-                } else {
-                    System.out.print('.');
-                }
+            rank = rank * 10 + digit - '0';
+            if (rank > dim) {
+                return -1;
             }
-            System.out.print(" " + append + i);
-            System.out.println("\n");
         }
+        return (rank - 1) * dim + file;
+    }
 
-        if (dim > 9) {
-            System.out.print("   ");
-        } else {
-            System.out.print("  ");
+    private static void appendFiles(StringBuilder frame, int dim) {
+        for (int i = 0; i < dim; i++) {
+            frame.append((char) ('A' + i));
         }
-        for (int i = 65; i < 65 + dim; i++) {
-            System.out.print((char) i);
+    }
+
+    private static void appendRule(StringBuilder frame, int dim) {
+        for (int i = 0; i < dim * 4; i++) {
+            frame.append('=');
         }
-        System.out.println("\n");
+    }
+
+    private static StringBuilder frame() {
+        StringBuilder frame = FRAME.get();
+        frame.setLength(0);
+        return frame;
+    }
+
+    // One write per frame instead of one per character
+    private static void flush(StringBuilder frame) {
+        System.out.append(frame);
+        System.out.flush();
     }
 
     public static int mainMenuQuery(char figureToMove, Scanner stdin) {
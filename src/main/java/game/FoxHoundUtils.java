@@ -1,7 +1,5 @@
 package game;
 
-import java.util.Arrays;
-
 public class FoxHoundUtils {
 
     /** Default dimension of the game board in case none is specified. */
@@ -16,6 +14,10 @@ public class FoxHoundUtils {
     /** Symbol to represent the fox figure. */
     public static final char FOX_FIELD = 'F';
 
+    /** Per-thread boards by dimension the rule checks set up the players on, instead of a new board per call. */
+    private static final ThreadLocal<FoxHoundBoard[]> SCRATCH = ThreadLocal
+            .withInitial(() -> new FoxHoundBoard[MAX_DIM + 1]);
+
     public static String[] initialisePositions(int dimension) {
         // Check if dmension is valid
         if (dimension < 4 || dimension > 26)
@@ -56,82 +58,39 @@ public class FoxHoundUtils {
     }
 
     public static boolean isValidMove(int dim, String[] players, char fh, String before, String after) {
-        char bChar = before.charAt(0);
-        int bAscii = (int) bChar;
-        int bNum = Integer.parseInt(before.substring(1));
-
-        char aChar = after.charAt(0);
-        int aAscii = (int) aChar;
-        int aNum = Integer.parseInt(after.substring(1));
-
-        if ((bAscii > dim + 65) || (bAscii < 65) || (bNum > dim) || (bNum <= 0) || (aAscii > dim + 65) || (aAscii < 65)
-                || (aNum > dim) || (aNum <= 0) || (!Arrays.asList(players).contains(before))
-                || (Arrays.asList(players).contains(after))) {
-            return false;
-        }
-
-        switch (fh) {
-            case 'F':
-                if ((!before.equals(players[players.length - 1])) || (aAscii != bAscii + 1 && aAscii != bAscii - 1)
-                        || (aAscii == bAscii) || (aNum == bNum) || (aNum != bNum + 1 && aNum != bNum - 1)) {
-                    return false;
-                }
-                break;
-            case 'H':
-                if ((before.equals(players[players.length - 1])) || (aAscii != bAscii + 1 && aAscii != bAscii - 1)
-                        || (aAscii == bAscii) || (aNum == bNum) || (aNum != bNum + 1)) {
-                    return false;
-                }
-                break;
-            default:
-                return false;
-        }
-
-        return true;
+        long start = FoxHoundMetrics.start();
+        FoxHoundBoard board = scratchBoard(players, dim);
+        // Off-board coordinates give -1 which the board rejects
+        int from = FoxHoundBoard.parseSquare(before, dim);
+        int to = FoxHoundBoard.parseSquare(after, dim);
+
+        boolean valid = board.isValidMove(fh, from, to);
+        FoxHoundMetrics.stop(FoxHoundMetrics.IS_VALID_MOVE, start);
+        return valid;
     }
 
     public static boolean isHoundWin(String[] players, int dim) {
-        String before = players[players.length - 1];
-
-        char bChar = before.charAt(0);
-        int bAscii = (int) bChar;
-        int bNum = Integer.parseInt(before.substring(1));
-
-        String topLeft = (char) (bAscii - 1) + "" + (bNum - 1);
-        String topRight = (char) (bAscii + 1) + "" + (bNum - 1);
-        String bottomRight = (char) (bAscii + 1) + "" + (bNum + 1);
-        String bottomLeft = (char) (bAscii - 1) + "" + bNum + 1;
-
-        if ((bAscii - 1 < 65) || (bNum - 1 <= 0)) {
-            topLeft = before;
-        }
-
-        if ((bAscii + 1 > 65 + dim) || (bNum - 1 <= 0)) {
-            topRight = before;
-        }
-
-        if ((bAscii + 1 > 65 + dim) || (bNum + 1 <= 0)) {
-            bottomRight = before;
-        }
-
-        if ((bAscii - 1 > 65 + dim) || (bNum + 1 <= 0)) {
-            bottomLeft = before;
-        }
+        long start = FoxHoundMetrics.start();
+        boolean trapped = scratchBoard(players, dim).isFoxTrapped();
+        FoxHoundMetrics.stop(FoxHoundMetrics.IS_HOUND_WIN, start);
+        return trapped;
+    }
 
-        if ((Arrays.asList(players).contains(topLeft)) && (Arrays.asList(players).contains(topRight))
-                && (Arrays.asList(players).contains(bottomRight)) && (Arrays.asList(players).contains(bottomLeft))) {
-            return true;
+    // The calling thread's board of dim, set up with the players
+    private static FoxHoundBoard scratchBoard(String[] players, int dim) {
+        FoxHoundBoard.checkDimension(dim);
+        FoxHoundBoard[] boards = SCRATCH.get();
+        if (boards[dim] == null) {
+            boards[dim] = new FoxHoundBoard(dim);
         }
-
-        return false;
+        boards[dim].setPlayers(players);
+        return boards[dim];
     }
 
     public static boolean isFoxWin(String foxPosition) {
-        int posNum = Integer.parseInt(foxPosition.substring(1));
-        if (posNum == 1) {
-            return true;
-        }
-        return false;
+        int square = FoxHoundBoard.parseSquare(foxPosition, MAX_DIM);
+        // The first rank holds the square indices 0 to dim - 1
+        return square >= 0 && square < MAX_DIM;
     }
 
     public static int searchKey(String[] keys, String key) {
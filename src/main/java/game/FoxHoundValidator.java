@@ -0,0 +1,376 @@
+package game;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Checks saved games for positions the rules cannot produce: a piece count
+ * that fits no board, squares off the board, two pieces on one square and
+ * positions that cannot be reached from {@link FoxHoundUtils#initialisePositions(int)}.
+ *
+ * <p>Reachability is exact on boards small enough to enumerate every
+ * position with {@link FoxHoundIndex}. On larger boards the necessary
+ * conditions are checked: all pieces on dark squares, a starting square
+ * within reach for every hound, and a fox whose distance and rank fit the
+ * number of moves the hounds have made.</p>
+ */
+public class FoxHoundValidator {
+
+    /** Largest index space enumerated for the exact reachability check. */
+    public static final long EXACT_MAX_ENTRIES = 1L << 24;
+
+    public static final String NO_DIMENSION = "piece count fits no board dimension";
+    public static final String WRONG_COUNT = "piece count does not match the board dimension";
+    public static final String OFF_BOARD = "square off the board";
+    public static final String OVERLAP = "two pieces on one square";
+    public static final String LIGHT_SQUARE = "piece on a light square";
+    public static final String HOUND_OUT_OF_REACH = "hounds cannot have come from their starting squares";
+    public static final String FOX_OUT_OF_REACH = "fox position does not fit the hound moves";
+    public static final String UNREACHABLE = "position cannot be reached";
+
+    private static final long[][] REACHABLE = new long[FoxHoundUtils.MAX_DIM + 1][];
+
+    /** Fixed dimension, or 0 to take the smallest one the pieces fit. */
+    private final int dim;
+    private final FoxHoundBoard[] boards = new FoxHoundBoard[FoxHoundUtils.MAX_DIM + 1];
+    private final int[] squares = new int[FoxHoundGameReader.MAX_PIECES];
+
+    public FoxHoundValidator(int dim) {
+        if (dim != 0) {
+            FoxHoundBoard.checkDimension(dim);
+        }
+        this.dim = dim;
+    }
+
+    /** @return null if the game is valid, otherwise why not */
+    public String check(FoxHoundGameReader.Record record) {
+        int hounds = record.count() - 1;
+        int size = dim;
+        if (size == 0) {
+            // the piece count allows two dimensions, take the first one every square fits on
+            int fallback = 0;
+            for (int candidate = 2 * hounds; candidate <= 2 * hounds + 1 && size == 0; candidate++) {
+                if (candidate >= FoxHoundUtils.MIN_DIM && candidate <= FoxHoundUtils.MAX_DIM) {
+                    fallback = fallback == 0 ? candidate : fallback;
+                    size = onBoard(record, candidate) ? candidate : 0;
+                }
+            }
+            if (fallback == 0) {
+                return NO_DIMENSION;
+            }
+            if (size == 0) {
+                // report the squares off the smaller board
+                size = fallback;
+            }
+        } else if (hounds != FoxHoundBoard.houndCount(size)) {
+            return WRONG_COUNT;
+        }
+
+        for (int i = 0; i < record.count(); i++) {
+            squares[i] = record.square(i, size);
+            if (squares[i] < 0) {
+                return OFF_BOARD;
+            }
+            for (int j = 0; j < i; j++) {
+                if (squares[j] == squares[i]) {
+                    return OVERLAP;
+                }
+            }
+        }
+        return reachable(record.turn(), size);
+    }
+
+    private static boolean onBoard(FoxHoundGameReader.Record record, int dim) {
+        for (int i = 0; i < record.count(); i++) {
+            if (record.square(i, dim) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String reachable(char turn, int dim) {
+        int pieces = FoxHoundBoard.houndCount(dim) + 1;
+        FoxHoundIndex index = FoxHoundIndex.forDim(dim);
+        String[] start = FoxHoundUtils.initialisePositions(dim);
+
+        int houndMoves = 0;
+        for (int i = 0; i < pieces; i++) {
+            if (index.darkIndex(squares[i]) < 0) {
+                return LIGHT_SQUARE;
+            }
+            if (i < pieces - 1) {
+                // hounds start on the first rank and move one rank forward at a time
+                houndMoves += squares[i] / dim;
+            }
+        }
+        if (!houndsMatchStart(start, dim)) {
+            return HOUND_OUT_OF_REACH;
+        }
+
+        // the fox moves first, so it has made as many moves as the hounds or one more
+        int foxMoves = houndMoves + (turn == FoxHoundUtils.HOUND_FIELD ? 1 : 0);
+        int fox = squares[pieces - 1];
+        int foxStart = FoxHoundBoard.parseSquare(start[pieces - 1], dim);
+        int distance = Math.max(Math.abs(fox / dim - foxStart / dim), Math.abs(fox % dim - foxStart % dim));
+        if (distance > foxMoves || (foxMoves - distance) % 2 != 0) {
+            return FOX_OUT_OF_REACH;
+        }
+
+        long[] reachable = reachableSet(dim);
+        if (reachable != null) {
+            FoxHoundBoard board = board(dim);
+            board.clear();
+            for (int i = 0; i < pieces - 1; i++) {
+                board.addHound(squares[i]);
+            }
+            board.setFox(fox);
+            long rank = index.rank(board, turn);
+            if ((reachable[(int) (rank >>> 6)] & (1L << rank)) == 0) {
+                return UNREACHABLE;
+            }
+        }
+        return null;
+    }
+
+    // Every hound needs its own starting square within reach: a hound on rank r
+    // can have come from the starting files at most r - 1 files away.
+    // Matching the hounds by the right end of that interval finds an
+    // assignment whenever there is one.
+    private boolean houndsMatchStart(String[] start, int dim) {
+        int hounds = start.length - 1;
+        boolean[] matched = new boolean[hounds];
+        boolean[] used = new boolean[hounds];
+        for (int n = 0; n < hounds; n++) {
+            int next = -1;
+            for (int i = 0; i < hounds; i++) {
+                if (!matched[i] && (next < 0 || right(i, dim) < right(next, dim))) {
+                    next = i;
+                }
+            }
+            matched[next] = true;
+            int reach = squares[next] / dim;
+            int file = squares[next] % dim;
+            int chosen = -1;
+            for (int s = 0; s < hounds && chosen < 0; s++) {
+                int from = FoxHoundBoard.parseSquare(start[s], dim) % dim;
+                if (!used[s] && Math.abs(file - from) <= reach) {
+                    chosen = s;
+                }
+            }
+            if (chosen < 0) {
+                return false;
+            }
+            used[chosen] = true;
+        }
+        return true;
+    }
+
+    private int right(int hound, int dim) {
+        return squares[hound] % dim + squares[hound] / dim;
+    }
+
+    private FoxHoundBoard board(int dim) {
+        if (boards[dim] == null) {
+            boards[dim] = new FoxHoundBoard(dim);
+        }
+        return boards[dim];
+    }
+
+    /** Every position reachable from the start of the game, or null if the board is too large to enumerate. */
+    static synchronized long[] reachableSet(int dim) {
+        FoxHoundIndex index = FoxHoundIndex.forDim(dim);
+        if (!index.fitsInLong() || index.size() > EXACT_MAX_ENTRIES) {
+            return null;
+        }
+        if (REACHABLE[dim] != null) {
+            return REACHABLE[dim];
+        }
+
+        long[] seen = new long[(int) ((index.size() + 63) / 64)];
+        int[] queue = new int[1024];
+        int head = 0;
+        int tail = 0;
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+        int start = (int) index.rank(board, FoxHoundUtils.FOX_FIELD);
+        seen[start >>> 6] |= 1L << start;
+        queue[tail++] = start;
+
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        while (head < tail) {
+            char turn = index.unrank(queue[head++], board);
+            if (board.isFoxWin() || board.isFoxTrapped()) {
+                // the game is over
+                continue;
+            }
+            char next = FoxHoundEngine.opponent(turn);
+            int count = FoxHoundMoves.generate(board, turn, moves, 0);
+            for (int i = 0; i < count; i++) {
+                int from = FoxHoundMoves.from(moves[i]);
+                int to = FoxHoundMoves.to(moves[i]);
+                board.move(from, to);
+                int child = (int) index.rank(board, next);
+                board.move(to, from);
+                if ((seen[child >>> 6] & (1L << child)) == 0) {
+                    seen[child >>> 6] |= 1L << child;
+                    if (tail == queue.length) {
+                        // drop what has been processed before growing
+                        System.arraycopy(queue, head, queue, 0, tail - head);
+                        tail -= head;
+                        head = 0;
+                        if (tail == queue.length) {
+                            queue = Arrays.copyOf(queue, queue.length * 2);
+                        }
+                    }
+                    queue[tail++] = child;
+                }
+            }
+        }
+        REACHABLE[dim] = seen;
+        return seen;
+    }
+
+    /** Totals of a validation run. */
+    public static class Summary {
+        public long files;
+        public long games;
+        public long invalid;
+        public long bytes;
+        public long nanos;
+        /** Number of invalid records per reason. */
+        public final Map<String, Long> reasons = new TreeMap<>();
+
+        public long valid() {
+            return games - invalid;
+        }
+
+        @Override
+        public String toString() {
+            long millis = Math.max(1, nanos / 1000000);
+            StringBuilder builder = new StringBuilder();
+            builder.append(files).append(" files, ").append(games).append(" games, ").append(valid())
+                    .append(" valid, ").append(invalid).append(" invalid in ").append(millis).append(" ms (")
+                    .append(games * 1000 / millis).append(" games/s, ")
+                    .append(String.format("%.1f", bytes / 1048576.0 * 1000 / millis)).append(" MB/s)");
+            for (Map.Entry<String, Long> reason : reasons.entrySet()) {
+                builder.append(System.lineSeparator()).append("  ").append(reason.getValue()).append(' ')
+                        .append(reason.getKey());
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Validate every regular file below {@code root} on {@code threads}
+     * threads, each file read by one thread. Invalid records are printed to
+     * {@code report} as {@code file:line: reason}.
+     */
+    public static Summary validate(Path root, final int dim, int threads, final PrintStream report)
+            throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Invalid thread count: " + threads);
+        }
+        final Summary summary = new Summary();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (Stream<Path> walk = Files.walk(root)) {
+            final Iterator<Path> files = walk.filter(Files::isRegularFile).iterator();
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    validateFiles(files, dim, summary, report);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Validation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IllegalStateException("Validation worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        summary.nanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    // One worker: take files off the shared iterator until none are left
+    private static void validateFiles(Iterator<Path> files, int dim, final Summary summary,
+            final PrintStream report) throws IOException {
+        final FoxHoundValidator validator = new FoxHoundValidator(dim);
+        final Map<String, Long> reasons = new TreeMap<>();
+        final long[] invalid = new long[1];
+        FoxHoundGameReader reader = new FoxHoundGameReader(new FoxHoundGameReader.Listener() {
+            @Override
+            public void game(FoxHoundGameReader.Record record) {
+                String reason = validator.check(record);
+                if (reason != null) {
+                    invalid(record.file(), record.line(), reason);
+                }
+            }
+
+            @Override
+            public void invalid(Path file, long line, String reason) {
+                invalid[0]++;
+                reasons.merge(reason, 1L, Long::sum);
+                report.println(file + ":" + line + ": " + reason);
+            }
+        });
+
+        long count = 0;
+        while (true) {
+            Path file;
+            synchronized (files) {
+                if (!files.hasNext()) {
+                    break;
+                }
+                file = files.next();
+            }
+            reader.read(file);
+            count++;
+        }
+
+        synchronized (summary) {
+            summary.files += count;
+            // syntax errors are counted by the reader as well as by the listener
+            summary.games += reader.games() + reader.invalid();
+            summary.invalid += invalid[0];
+            summary.bytes += reader.bytes();
+            for (Map.Entry<String, Long> reason : reasons.entrySet()) {
+                summary.reasons.merge(reason.getKey(), reason.getValue(), Long::sum);
+            }
+        }
+    }
+
+    /** Usage: {@code FoxHoundValidator <directory> [dim] [threads]}, dim 0 to infer it per game. */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: FoxHoundValidator <directory> [dim] [threads]");
+            return;
+        }
+        int dim = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : FoxHoundParallelSearch.DEFAULT_THREADS;
+        Summary summary = validate(Paths.get(args[0]), dim, threads, System.out);
+        System.out.println(summary);
+    }
+}
@@ -0,0 +1,50 @@
+package game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for Fox and Hounds positions: one random key per square and
+ * figure type plus one for the hounds being the side to move. Keys are
+ * deterministic per dimension so hashes are stable between runs.
+ */
+public class FoxHoundZobrist {
+
+    /** Key toggled when the hounds are to move. */
+    public static final long HOUND_TO_MOVE = 0x9E3779B97F4A7C15L;
+
+    private static final long SEED = 0x5DEECE66DL;
+
+    private static final long[][] FOX_KEYS = new long[FoxHoundUtils.MAX_DIM + 1][];
+    private static final long[][] HOUND_KEYS = new long[FoxHoundUtils.MAX_DIM + 1][];
+
+    public static synchronized long[] foxKeys(int dim) {
+        if (FOX_KEYS[dim] == null) {
+            createKeys(dim);
+        }
+        return FOX_KEYS[dim];
+    }
+
+    public static synchronized long[] houndKeys(int dim) {
+        if (HOUND_KEYS[dim] == null) {
+            createKeys(dim);
+        }
+        return HOUND_KEYS[dim];
+    }
+
+    /** Full key of a position, including the side to move. */
+    public static long key(FoxHoundBoard board, char turn) {
+        return turn == FoxHoundUtils.HOUND_FIELD ? board.key() ^ HOUND_TO_MOVE : board.key();
+    }
+
+    private static void createKeys(int dim) {
+        SplittableRandom random = new SplittableRandom(SEED + dim);
+        long[] fox = new long[dim * dim];
+        long[] hound = new long[dim * dim];
+        for (int square = 0; square < dim * dim; square++) {
+            fox[square] = random.nextLong();
+            hound[square] = random.nextLong();
+        }
+        FOX_KEYS[dim] = fox;
+        HOUND_KEYS[dim] = hound;
+    }
+}
@@ -0,0 +1,76 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+public class FoxHoundAnsiRendererTest {
+
+    private static final String ESC = "\u001b[";
+
+    @Test
+    public void testFirstRenderDrawsWholeBoard() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FoxHoundAnsiRenderer renderer = new FoxHoundAnsiRenderer(8, new PrintStream(bytes, true));
+        renderer.render(new String[] { "B1", "D1", "F1", "H1", "E8" });
+
+        String screen = bytes.toString();
+        assertTrue(screen.contains(ESC + "2J"));
+        assertTrue(screen.contains("1 .H.H.H.H 1\r\n"));
+        assertTrue(screen.contains("8 ....F... 8\r\n"));
+        // menus scroll below the board and its footer
+        assertTrue(screen.endsWith(ESC + "12r" + ESC + "12;1H"));
+    }
+
+    @Test
+    public void testMoveRedrawsTwoSquares() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FoxHoundAnsiRenderer renderer = new FoxHoundAnsiRenderer(8, new PrintStream(bytes, true));
+        String[] players = { "B1", "D1", "F1", "H1", "E8" };
+        renderer.render(players);
+
+        bytes.reset();
+        players[4] = "D7";
+        renderer.render(players);
+        assertEquals("\u001b7" + ESC + "8;6HF" + ESC + "9;7H." + "\u001b8", bytes.toString());
+
+        bytes.reset();
+        renderer.render(players);
+        assertEquals("Unchanged board expected to send nothing", 0, bytes.size());
+    }
+
+    @Test
+    public void testUpdateSizeIndependentOfDimension() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            FoxHoundAnsiRenderer renderer = new FoxHoundAnsiRenderer(dim, new PrintStream(bytes, true));
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            renderer.render(players);
+            int full = bytes.size();
+
+            bytes.reset();
+            int fox = FoxHoundBoard.parseSquare(players[players.length - 1], dim);
+            players[players.length - 1] = FoxHoundBoard.squareName(fox - dim - 1, dim);
+            renderer.render(players);
+
+            assertTrue(bytes.size() <= 30);
+            assertTrue(dim < 16 || bytes.size() * 10 < full);
+        }
+    }
+
+    @Test
+    public void testInvalidateRedrawsBoard() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        FoxHoundAnsiRenderer renderer = new FoxHoundAnsiRenderer(4, new PrintStream(bytes, true));
+        String[] players = FoxHoundUtils.initialisePositions(4);
+        renderer.render(players);
+        bytes.reset();
+
+        renderer.invalidate();
+        renderer.render(players);
+        assertTrue(bytes.toString().contains(ESC + "2J"));
+    }
+}
@@ -0,0 +1,142 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundArchiveTest {
+
+    private Path path;
+
+    @Before
+    public void setup() throws IOException {
+        path = Files.createTempFile("foxhound", ".fha");
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(FoxHoundArchive.indexPath(path));
+    }
+
+    // Position of game i: the fox walks down the board of a dimension picked by i
+    private static String[] game(int i) {
+        int dim = FoxHoundUtils.MIN_DIM + i % (FoxHoundUtils.MAX_DIM - FoxHoundUtils.MIN_DIM + 1);
+        String[] players = FoxHoundUtils.initialisePositions(dim);
+        players[players.length - 1] = FoxHoundBoard.squareName(i % (dim * dim), dim);
+        return players;
+    }
+
+    private static int dim(String[] players) {
+        return FoxHoundArchive.inferDimension(players);
+    }
+
+    @Test
+    public void testAppendAndLoadInAnyOrder() throws IOException {
+        int games = 5000;
+        try (FoxHoundArchive archive = FoxHoundArchive.open(path)) {
+            for (int i = 0; i < games; i++) {
+                String[] players = game(i);
+                char turn = i % 2 == 0 ? FoxHoundUtils.FOX_FIELD : FoxHoundUtils.HOUND_FIELD;
+                assertEquals(i, archive.append(players, turn, FoxHoundUtils.MIN_DIM + i % 23));
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(1);
+        try (FoxHoundArchive archive = FoxHoundArchive.openReadOnly(path)) {
+            assertEquals(games, archive.size());
+            for (int n = 0; n < 1000; n++) {
+                int id = random.nextInt(games);
+                String[] expected = game(id);
+                String[] players = new String[expected.length];
+                char turn = archive.load(id, players);
+                assertEquals(id % 2 == 0 ? FoxHoundUtils.FOX_FIELD : FoxHoundUtils.HOUND_FIELD, turn);
+                assertArrayEquals(expected, players);
+            }
+        }
+    }
+
+    @Test
+    public void testAppendAfterReopen() throws IOException {
+        try (FoxHoundArchive archive = FoxHoundArchive.open(path)) {
+            archive.append(game(0), FoxHoundUtils.FOX_FIELD, 4);
+        }
+        long size = Files.size(path);
+        try (FoxHoundArchive archive = FoxHoundArchive.open(path)) {
+            assertEquals(1, archive.size());
+            assertEquals(1, archive.append(game(4), FoxHoundUtils.HOUND_FIELD, 8));
+
+            // loading between appends maps the grown files again
+            String[] players = new String[game(4).length];
+            assertEquals(FoxHoundUtils.HOUND_FIELD, archive.load(1, players));
+            archive.append(game(8), FoxHoundUtils.FOX_FIELD, 12);
+            assertEquals(FoxHoundUtils.FOX_FIELD, archive.load(2, new String[game(8).length]));
+        }
+        assertTrue("Existing games expected to stay in place", Files.size(path) > size);
+
+        String[] players = new String[game(0).length];
+        assertEquals(FoxHoundUtils.FOX_FIELD, FoxHoundIO.loadGame(players, path, 0));
+        assertArrayEquals(game(0), players);
+    }
+
+    @Test
+    public void testDataWithoutIndexEntryIsDropped() throws IOException {
+        try (FoxHoundArchive archive = FoxHoundArchive.open(path)) {
+            archive.append(game(4), FoxHoundUtils.FOX_FIELD, 8);
+        }
+        long size = Files.size(path);
+        // a crash after the game was written but before its offset was
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }));
+        }
+
+        try (FoxHoundArchive archive = FoxHoundArchive.open(path)) {
+            assertEquals(1, archive.size());
+            assertEquals(size, Files.size(path));
+            assertEquals(1, archive.append(game(4), FoxHoundUtils.HOUND_FIELD, 8));
+            assertEquals(FoxHoundUtils.HOUND_FIELD, archive.load(1, new String[game(4).length]));
+        }
+    }
+
+    @Test
+    public void testWrongPlayerCount() throws IOException {
+        try (FoxHoundArchive archive = FoxHoundArchive.open(path)) {
+            archive.append(game(4), FoxHoundUtils.FOX_FIELD, 8);
+            assertEquals('#', archive.load(0, new String[3]));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdOutOfRange() throws IOException {
+        try (FoxHoundArchive archive = FoxHoundArchive.open(path)) {
+            archive.load(0, new String[5]);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAnArchive() throws IOException {
+        Files.write(path, "F B1 D1 F1 H1 E8".getBytes());
+        Files.write(FoxHoundArchive.indexPath(path), new byte[0]);
+        FoxHoundArchive.open(path).close();
+    }
+
+    @Test
+    public void testInferDimension() {
+        assertEquals(8, dim(new String[] { "C2", "D1", "F1", "H1", "D7" }));
+        assertEquals(9, dim(new String[] { "C2", "D1", "F1", "H1", "I9" }));
+        assertEquals(4, dim(new String[] { "B1", "D1", "C4" }));
+        assertEquals(-1, dim(new String[] { "C9", "D1", "F1", "X1", "D7" }));
+        assertEquals(-1, dim(new String[] { "2C", "D1", "F1", "H1", "D7" }));
+    }
+}
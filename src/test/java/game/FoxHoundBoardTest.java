@@ -0,0 +1,132 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundBoardTest {
+
+    // ------------------------- conversion --------------------
+
+    @Test
+    public void testPlayersRoundTripAllDimensions() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            FoxHoundBoard board = FoxHoundBoard.fromPlayers(players, dim);
+
+            assertArrayEquals("Round trip not lossless for dimension " + dim, players, board.toPlayers());
+        }
+    }
+
+    @Test
+    public void testParseSquare() {
+        assertEquals(0, FoxHoundBoard.parseSquare("A1", 8));
+        assertEquals(1, FoxHoundBoard.parseSquare("B1", 8));
+        assertEquals(63, FoxHoundBoard.parseSquare("H8", 8));
+        assertEquals(26 * 26 - 1, FoxHoundBoard.parseSquare("Z26", 26));
+        assertEquals("Z26", FoxHoundBoard.squareName(26 * 26 - 1, 26));
+    }
+
+    @Test
+    public void testParseSquareOffBoard() {
+        assertEquals(-1, FoxHoundBoard.parseSquare("I1", 8));
+        assertEquals(-1, FoxHoundBoard.parseSquare("A9", 8));
+        assertEquals(-1, FoxHoundBoard.parseSquare("A0", 8));
+        assertEquals(-1, FoxHoundBoard.parseSquare("A12345678901", 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseSquareMalformed() {
+        FoxHoundBoard.parseSquare("1A", 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetPlayersOverlapping() {
+        FoxHoundBoard.fromPlayers(new String[] { "B1", "B1", "F1", "H1", "E8" }, 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetPlayersOffBoard() {
+        FoxHoundBoard.fromPlayers(new String[] { "B1", "D1", "F1", "I1", "E8" }, 8);
+    }
+
+    // ------------------------- rules --------------------
+
+    @Test
+    public void testFoxTrappedOnEdgesLargeBoard() {
+        // fox on the right edge of a multi-word board, hounds on both left diagonals
+        String[] players = FoxHoundUtils.initialisePositions(26);
+        players[0] = "Y11";
+        players[1] = "Y13";
+        players[players.length - 1] = "Z12";
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(players, 26);
+
+        assertTrue("Fox expected to be trapped: " + board, board.isFoxTrapped());
+
+        board.move(FoxHoundBoard.parseSquare("Y13", 26), FoxHoundBoard.parseSquare("X14", 26));
+
+        assertFalse("Fox not expected to be trapped: " + board, board.isFoxTrapped());
+    }
+
+    @Test
+    public void testFoxPastHoundsLargeBoard() {
+        // every hound on rank 10, which lies beyond the first word
+        String[] players = FoxHoundUtils.initialisePositions(26);
+        for (int i = 0; i < players.length - 1; i++) {
+            players[i] = (char) ('B' + 2 * i) + "10";
+        }
+        players[players.length - 1] = "A11";
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(players, 26);
+
+        assertFalse(board.isFoxPastHounds());
+
+        // level with the rearmost hound
+        board.move(FoxHoundBoard.parseSquare("A11", 26), FoxHoundBoard.parseSquare("A10", 26));
+        assertTrue(board.isFoxPastHounds());
+        assertFalse(board.isFoxTrapped());
+
+        // a hound left behind on a lower rank keeps the game open
+        board.move(FoxHoundBoard.parseSquare("B10", 26), FoxHoundBoard.parseSquare("B9", 26));
+        assertFalse(board.isFoxPastHounds());
+    }
+
+    @Test
+    public void testMoveAndCopy() {
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(8), 8);
+        FoxHoundBoard copy = new FoxHoundBoard(8);
+        copy.copyFrom(board);
+
+        int from = FoxHoundBoard.parseSquare("E8", 8);
+        int to = FoxHoundBoard.parseSquare("D7", 8);
+        assertTrue(board.isValidMove(FoxHoundUtils.FOX_FIELD, from, to));
+        assertFalse(board.isValidMove(FoxHoundUtils.HOUND_FIELD, from, to));
+
+        board.move(from, to);
+        assertEquals(to, board.fox());
+        assertNotEquals(copy, board);
+
+        board.move(to, from);
+        assertEquals(copy, board);
+    }
+
+    // ------------------------- hashing --------------------
+
+    @Test
+    public void testIncrementalKeyMatchesFreshBoard() {
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(8), 8);
+        long start = board.key();
+
+        board.move(FoxHoundBoard.parseSquare("E8", 8), FoxHoundBoard.parseSquare("D7", 8));
+        board.move(FoxHoundBoard.parseSquare("B1", 8), FoxHoundBoard.parseSquare("C2", 8));
+        FoxHoundBoard fresh = FoxHoundBoard.fromPlayers(new String[] { "C2", "D1", "F1", "H1", "D7" }, 8);
+
+        assertEquals(fresh.key(), board.key());
+        assertNotEquals(start, board.key());
+        assertNotEquals(FoxHoundZobrist.key(board, FoxHoundUtils.FOX_FIELD),
+                FoxHoundZobrist.key(board, FoxHoundUtils.HOUND_FIELD));
+
+        board.move(FoxHoundBoard.parseSquare("C2", 8), FoxHoundBoard.parseSquare("B1", 8));
+        board.move(FoxHoundBoard.parseSquare("D7", 8), FoxHoundBoard.parseSquare("E8", 8));
+        assertEquals(start, board.key());
+    }
+}
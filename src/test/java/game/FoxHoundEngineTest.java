@@ -0,0 +1,82 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundEngineTest {
+
+    private static final long TIME_MILLIS = 200;
+
+    private static int square(String coord, int dim) {
+        return FoxHoundBoard.parseSquare(coord, dim);
+    }
+
+    @Test
+    public void testFoxTakesImmediateWin() {
+        String[] players = { "B1", "E4", "F1", "H1", "C2" };
+        FoxHoundEngine engine = new FoxHoundEngine(8);
+
+        FoxHoundEngine.Result result = engine.search(players, FoxHoundUtils.FOX_FIELD, TIME_MILLIS);
+
+        assertTrue("Fox expected to see a win: " + result, result.isWin());
+        assertEquals(square("C2", 8), FoxHoundMoves.from(result.move));
+        assertEquals(square("D1", 8), FoxHoundMoves.to(result.move));
+    }
+
+    @Test
+    public void testHoundsTrapFoxInCorner() {
+        String[] players = { "A6", "D1", "F1", "H1", "A8" };
+        FoxHoundEngine engine = new FoxHoundEngine(8);
+
+        FoxHoundEngine.Result result = engine.search(players, FoxHoundUtils.HOUND_FIELD, TIME_MILLIS);
+
+        assertTrue("Hounds expected to see a win: " + result, result.isWin());
+        assertEquals("A6 B7", FoxHoundMoves.toString(result.move, 8));
+    }
+
+    @Test
+    public void testSearchFromStartReturnsLegalMove() {
+        for (int dim : new int[] { FoxHoundUtils.MIN_DIM, FoxHoundUtils.DEFAULT_DIM, FoxHoundUtils.MAX_DIM }) {
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            FoxHoundEngine engine = new FoxHoundEngine(dim);
+
+            long start = System.currentTimeMillis();
+            FoxHoundEngine.Result result = engine.search(players, FoxHoundUtils.HOUND_FIELD, TIME_MILLIS);
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue("Search expected to complete at least one iteration: " + result, result.depth >= 1);
+            assertTrue(result.nodes > 0);
+            assertTrue("Search took too long: " + elapsed + " ms", elapsed < 10 * TIME_MILLIS);
+
+            String before = FoxHoundBoard.squareName(FoxHoundMoves.from(result.move), dim);
+            String after = FoxHoundBoard.squareName(FoxHoundMoves.to(result.move), dim);
+            assertTrue(FoxHoundUtils.isValidMove(dim, players, FoxHoundUtils.HOUND_FIELD, before, after));
+        }
+    }
+
+    @Test
+    public void testFoxPastHoundsIsAWin() {
+        // the fox on D4 is level with the rearmost hound and three fox moves from the first rank
+        String[] players = { "C4", "E5", "F6", "H6", "D4" };
+        FoxHoundEngine engine = new FoxHoundEngine(8);
+
+        FoxHoundEngine.Result fox = engine.search(players, FoxHoundUtils.FOX_FIELD, TIME_MILLIS);
+        assertTrue(fox.isWin());
+        assertEquals(FoxHoundEngine.WIN_SCORE - 5, fox.score);
+        assertEquals(square("D4", 8), FoxHoundMoves.from(fox.move));
+
+        FoxHoundEngine.Result hounds = engine.search(players, FoxHoundUtils.HOUND_FIELD, TIME_MILLIS);
+        assertTrue(hounds.isLoss());
+    }
+
+    @Test
+    public void testNoMoveInFinishedGame() {
+        String[] players = { "B1", "D1", "F1", "H1", "A1" };
+        FoxHoundEngine engine = new FoxHoundEngine(8);
+
+        FoxHoundEngine.Result result = engine.search(players, FoxHoundUtils.HOUND_FIELD, TIME_MILLIS);
+
+        assertEquals(-1, result.move);
+    }
+}
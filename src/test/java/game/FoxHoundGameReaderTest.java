@@ -0,0 +1,135 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class FoxHoundGameReaderTest {
+
+    private final List<String> games = new ArrayList<>();
+    private final List<String> invalid = new ArrayList<>();
+
+    private final FoxHoundGameReader reader = new FoxHoundGameReader(new FoxHoundGameReader.Listener() {
+        @Override
+        public void game(FoxHoundGameReader.Record record) {
+            games.add(record.line() + " " + record.turn() + " " + String.join(" ", record.players()));
+        }
+
+        @Override
+        public void invalid(Path file, long line, String reason) {
+            invalid.add(line + ": " + reason);
+        }
+    });
+
+    private void read(String text) throws IOException {
+        ReadableByteChannel channel = Channels.newChannel(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)));
+        reader.read(channel, Paths.get("test"));
+    }
+
+    @Test
+    public void testGamesPerLine() throws IOException {
+        read("F B1 D1 F1 H1 E8\n\n  H\tC2 D1 F1 H1 D7  \r\nF B3 D3 F1 H3 A2");
+        assertEquals(Arrays.asList("1 F B1 D1 F1 H1 E8", "3 H C2 D1 F1 H1 D7", "4 F B3 D3 F1 H3 A2"), games);
+        assertTrue(invalid.isEmpty());
+        assertEquals(3, reader.games());
+    }
+
+    @Test
+    public void testInvalidLinesReportedWithLineNumbers() throws IOException {
+        read("C2 D1 F1 H1 D7 F\n"
+                + "F|C2|D1|F1|H1|D7\n"
+                + "F 2C D1 1F H1 D7\n"
+                + "X C2 D1 F1 H1 D7\n"
+                + "F C09 D1\n"
+                + "F\n"
+                + "F B1\n"
+                + "F B1 D1\n");
+        assertEquals(Arrays.asList("1: " + FoxHoundGameReader.NO_TURN, "2: " + FoxHoundGameReader.NO_SEPARATOR,
+                "3: " + FoxHoundGameReader.BAD_SQUARE, "4: " + FoxHoundGameReader.NO_TURN,
+                "5: " + FoxHoundGameReader.BAD_SQUARE, "6: " + FoxHoundGameReader.TOO_FEW,
+                "7: " + FoxHoundGameReader.TOO_FEW), invalid);
+        assertEquals(Arrays.asList("8 F B1 D1"), games);
+    }
+
+    @Test
+    public void testTooManyPieces() throws IOException {
+        StringBuilder line = new StringBuilder("F");
+        for (int i = 0; i <= FoxHoundGameReader.MAX_PIECES; i++) {
+            line.append(" A1");
+        }
+        read(line + "\nF B1 D1 F1 H1 E8\n");
+        assertEquals(Arrays.asList("1: " + FoxHoundGameReader.TOO_MANY), invalid);
+        assertEquals(1, games.size());
+    }
+
+    @Test
+    public void testLinesLongerThanTheBuffer() throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] padding = new char[200000];
+        Arrays.fill(padding, ' ');
+        for (int i = 0; i < 3; i++) {
+            text.append("H ").append(padding).append("B1 D1 F1 H1").append(padding).append(" E8\n");
+        }
+        read(text.toString());
+        assertEquals(3, games.size());
+        assertEquals("3 H B1 D1 F1 H1 E8", games.get(2));
+    }
+
+    @Test
+    public void testSquareOnBoard() throws IOException {
+        read("F C9 D1 F1 X1 D7\n");
+        assertEquals(1, games.size());
+        final int[] squares = new int[5];
+        FoxHoundGameReader checker = new FoxHoundGameReader(new FoxHoundGameReader.Listener() {
+            @Override
+            public void game(FoxHoundGameReader.Record record) {
+                for (int i = 0; i < record.count(); i++) {
+                    squares[i] = record.square(i, 8);
+                }
+            }
+
+            @Override
+            public void invalid(Path file, long line, String reason) {
+                fail(reason);
+            }
+        });
+        checker.read(Paths.get("data/invalidGame06.txt"));
+        assertArrayEquals(new int[] { -1, 3, 5, -1, 51 }, squares);
+    }
+
+    @Test
+    public void testDataDirectory() throws IOException {
+        final Set<String> files = new TreeSet<>();
+        FoxHoundGameReader directory = new FoxHoundGameReader(new FoxHoundGameReader.Listener() {
+            @Override
+            public void game(FoxHoundGameReader.Record record) {
+                // only counted
+            }
+
+            @Override
+            public void invalid(Path file, long line, String reason) {
+                files.add(file.getFileName().toString());
+            }
+        });
+        directory.read(Paths.get("data"));
+
+        // invalidGame06 is well formed, its squares are off the board
+        assertEquals(new TreeSet<>(Arrays.asList("invalidGame01.txt", "invalidGame02.txt", "invalidGame03.txt",
+                "invalidGame04.txt", "invalidGame05.txt")), files);
+        assertTrue(directory.games() >= 8);
+    }
+}
@@ -0,0 +1,114 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundIOBinaryTest {
+
+    private static final char LOAD_ERROR = '#';
+
+    private Path path;
+
+    @Before
+    public void setup() throws IOException {
+        path = Files.createTempFile("foxhound", ".fhb");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testRoundTripEveryDimension() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            players[0] = FoxHoundBoard.squareName(dim * dim - 1, dim);
+            assertTrue(FoxHoundIO.saveGameBinary(players, FoxHoundUtils.HOUND_FIELD, dim, path));
+
+            String[] loaded = new String[players.length];
+            assertEquals(FoxHoundUtils.HOUND_FIELD, FoxHoundIO.loadGame(loaded, path));
+            assertArrayEquals(players, loaded);
+        }
+    }
+
+    @Test
+    public void testDefaultBoardFitsInTwelveBytes() throws IOException {
+        String[] players = { "B1", "D1", "F1", "H1", "E8" };
+        FoxHoundIO.saveGameBinary(players, FoxHoundUtils.FOX_FIELD, FoxHoundUtils.DEFAULT_DIM, path);
+        assertEquals(12, Files.size(path));
+        assertEquals(12, FoxHoundIO.binarySize(FoxHoundUtils.DEFAULT_DIM, players.length));
+    }
+
+    @Test
+    public void testTextSavesStillLoad() {
+        String[] players = FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM);
+        assertEquals(FoxHoundUtils.FOX_FIELD, FoxHoundIO.loadGame(players, Paths.get("data/game01.txt")));
+        assertArrayEquals(new String[] { "C2", "D1", "F1", "H1", "D7" }, players);
+    }
+
+    @Test
+    public void testWrongPieceCount() {
+        String[] players = FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM);
+        FoxHoundIO.saveGameBinary(players, FoxHoundUtils.FOX_FIELD, FoxHoundUtils.DEFAULT_DIM, path);
+
+        String[] loaded = FoxHoundUtils.initialisePositions(10);
+        String[] expected = loaded.clone();
+        assertEquals(LOAD_ERROR, FoxHoundIO.loadGame(loaded, path));
+        assertArrayEquals("Players expected to stay unchanged", expected, loaded);
+    }
+
+    @Test
+    public void testOtherDimension() {
+        // 9x9 has as many players as 8x8
+        String[] players = FoxHoundUtils.initialisePositions(9);
+        FoxHoundIO.saveGameBinary(players, FoxHoundUtils.FOX_FIELD, 9, path);
+
+        String[] loaded = FoxHoundUtils.initialisePositions(8);
+        String[] expected = loaded.clone();
+        assertEquals(LOAD_ERROR, FoxHoundIO.loadGameForBoard(loaded, path, 8));
+        assertArrayEquals("Players expected to stay unchanged", expected, loaded);
+        assertEquals(FoxHoundUtils.FOX_FIELD, FoxHoundIO.loadGameForBoard(loaded, path, 9));
+        assertArrayEquals(players, loaded);
+    }
+
+    @Test
+    public void testTruncatedFile() throws IOException {
+        String[] players = FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM);
+        FoxHoundIO.saveGameBinary(players, FoxHoundUtils.FOX_FIELD, FoxHoundUtils.DEFAULT_DIM, path);
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertEquals(LOAD_ERROR, FoxHoundIO.loadGame(players, path));
+    }
+
+    @Test
+    public void testSquareOutsideBoard() {
+        ByteBuffer wide = ByteBuffer.allocate(FoxHoundIO.binarySize(5, 3));
+        FoxHoundIO.writeBinary(wide, new String[] { "B1", "D1", "E5" }, FoxHoundUtils.FOX_FIELD, 5);
+        // 5 bits per square, 31 is past the last square 24
+        wide.put(FoxHoundIO.BINARY_HEADER_BYTES, (byte) 0x1F);
+        wide.flip();
+        assertEquals(LOAD_ERROR, FoxHoundIO.readBinary(wide, new String[3]));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSaveInvalidFigure() {
+        FoxHoundIO.saveGameBinary(new String[] { "B1", "D1", "D4" }, 'X', 4, path);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSavePlayerOffBoard() {
+        FoxHoundIO.saveGameBinary(new String[] { "B1", "D1", "C9" }, FoxHoundUtils.FOX_FIELD, 4, path);
+    }
+}
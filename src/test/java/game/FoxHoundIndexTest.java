@@ -0,0 +1,86 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FoxHoundIndexTest {
+
+    private static final int RANDOM_POSITIONS = 200;
+
+    @Test
+    public void testBijectionSmallBoards() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 6; dim++) {
+            FoxHoundIndex index = FoxHoundIndex.forDim(dim);
+            FoxHoundBoard board = new FoxHoundBoard(dim);
+
+            for (long i = 0; i < index.size(); i++) {
+                char turn = index.unrank(i, board);
+                assertEquals("Rank of unranked index differs for dimension " + dim, i, index.rank(board, turn));
+            }
+        }
+    }
+
+    @Test
+    public void testSizes() {
+        assertEquals(2013760L, FoxHoundIndex.forDim(8).size());
+        assertTrue(FoxHoundIndex.forDim(20).fitsInLong());
+        assertFalse(FoxHoundIndex.forDim(21).fitsInLong());
+        assertEquals(338, FoxHoundIndex.forDim(FoxHoundUtils.MAX_DIM).darkCount());
+    }
+
+    @Test
+    public void testStartPositionsRankOnEveryDimension() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            FoxHoundIndex index = FoxHoundIndex.forDim(dim);
+            FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+
+            BigInteger rank = index.bigRank(board, FoxHoundUtils.FOX_FIELD);
+            assertNotNull("Start position expected to be rankable for dimension " + dim, rank);
+
+            FoxHoundBoard copy = new FoxHoundBoard(dim);
+            assertEquals(FoxHoundUtils.FOX_FIELD, index.unrank(rank, copy));
+            assertEquals(board, copy);
+        }
+    }
+
+    @Test
+    public void testRandomRoundTripEveryDimension() {
+        Random random = new Random(3);
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            FoxHoundIndex index = FoxHoundIndex.forDim(dim);
+            FoxHoundBoard board = new FoxHoundBoard(dim);
+
+            for (int i = 0; i < RANDOM_POSITIONS; i++) {
+                BigInteger rank = new BigInteger(index.bigSize().bitLength() + 8, random).mod(index.bigSize());
+                char turn = index.unrank(rank, board);
+                assertEquals(rank, index.bigRank(board, turn));
+
+                if (index.fitsInLong()) {
+                    assertEquals(rank.longValue(), index.rank(board, turn));
+                    FoxHoundBoard copy = new FoxHoundBoard(dim);
+                    assertEquals(turn, index.unrank(rank.longValue(), copy));
+                    assertEquals(board, copy);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLightSquaresAreNotRanked() {
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(new String[] { "B1", "D1", "F1", "H1", "E7" }, 8);
+
+        assertEquals(-1, FoxHoundIndex.forDim(8).rank(board, FoxHoundUtils.FOX_FIELD));
+        assertNull(FoxHoundIndex.forDim(8).bigRank(board, FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLongRankTooLarge() {
+        FoxHoundIndex index = FoxHoundIndex.forDim(FoxHoundUtils.MAX_DIM);
+        index.rank(FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(FoxHoundUtils.MAX_DIM),
+                FoxHoundUtils.MAX_DIM), FoxHoundUtils.FOX_FIELD);
+    }
+}
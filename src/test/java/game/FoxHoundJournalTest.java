@@ -0,0 +1,149 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundJournalTest {
+
+    private static final char LOAD_ERROR = '#';
+
+    private Path path;
+
+    @Before
+    public void setup() throws IOException {
+        path = Files.createTempFile("foxhound", ".fhj");
+        Files.delete(path);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testReplayMoves() throws IOException {
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 8)) {
+            journal.appendMove("E8", "D7");
+            journal.appendMove("B1", "C2");
+            journal.appendMove("D7", "E6");
+            // written straight away, only the fsync waits
+            assertEquals(FoxHoundJournal.HEADER_BYTES + 9, Files.size(path));
+        }
+
+        String[] players = new String[5];
+        assertEquals(FoxHoundUtils.HOUND_FIELD, FoxHoundJournal.replay(path, players, 8));
+        assertArrayEquals(new String[] { "C2", "D1", "F1", "H1", "E6" }, players);
+    }
+
+    @Test
+    public void testSnapshotReplacesPosition() throws IOException {
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 8)) {
+            journal.appendMove("E8", "D7");
+            journal.appendSnapshot(new String[] { "C2", "D1", "F1", "H1", "D7" }, FoxHoundUtils.FOX_FIELD);
+            journal.appendMove("D7", "C6");
+        }
+
+        String[] players = new String[5];
+        assertEquals(FoxHoundUtils.HOUND_FIELD, FoxHoundJournal.replay(path, players, 8));
+        assertArrayEquals(new String[] { "C2", "D1", "F1", "H1", "C6" }, players);
+    }
+
+    @Test
+    public void testTornRecordIsCutOffOnReopen() throws IOException {
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 8)) {
+            journal.appendMove("E8", "D7");
+            journal.appendMove("B1", "C2");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(path) - 1);
+        }
+
+        String[] players = new String[5];
+        assertEquals(FoxHoundUtils.HOUND_FIELD, FoxHoundJournal.replay(path, players, 8));
+        assertArrayEquals(new String[] { "B1", "D1", "F1", "H1", "D7" }, players);
+
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 8)) {
+            // opening recovers the same position, without reading the file again
+            String[] recovered = new String[5];
+            assertEquals(FoxHoundUtils.HOUND_FIELD, journal.recovered(recovered));
+            assertArrayEquals(players, recovered);
+            journal.appendMove("D1", "E2");
+        }
+        assertEquals(FoxHoundUtils.FOX_FIELD, FoxHoundJournal.replay(path, players, 8));
+        assertArrayEquals(new String[] { "B1", "E2", "F1", "H1", "D7" }, players);
+    }
+
+    @Test
+    public void testManyMovesWithGroupCommit() throws IOException {
+        String[] expected = FoxHoundUtils.initialisePositions(6);
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 6, 4, 1)) {
+            // fox runs back and forth while the hounds advance on the first file
+            String[] fox = { "E6", "D5" };
+            String[] hound = { "B1", "A2", "B3", "A4" };
+            for (int i = 0; i < 3; i++) {
+                journal.appendMove(fox[i % 2], fox[(i + 1) % 2]);
+                journal.appendMove(hound[i], hound[i + 1]);
+            }
+            expected[0] = "A4";
+            expected[expected.length - 1] = "D5";
+        }
+
+        String[] players = new String[expected.length];
+        assertEquals(FoxHoundUtils.FOX_FIELD, FoxHoundJournal.replay(path, players, 6));
+        assertArrayEquals(expected, players);
+    }
+
+    @Test
+    public void testNewJournalRecoversInitialPosition() throws IOException {
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 9)) {
+            String[] players = new String[5];
+            assertEquals(FoxHoundUtils.FOX_FIELD, journal.recovered(players));
+            assertArrayEquals(FoxHoundUtils.initialisePositions(9), players);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReopenWithOtherDimension() throws IOException {
+        new FoxHoundJournal(path, 8).close();
+        new FoxHoundJournal(path, 10).close();
+    }
+
+    @Test
+    public void testReplayNotAJournal() {
+        String[] players = FoxHoundUtils.initialisePositions(8);
+        String[] expected = players.clone();
+        assertEquals(LOAD_ERROR, FoxHoundJournal.replay(Paths.get("data/game01.txt"), players, 8));
+        assertArrayEquals(expected, players);
+    }
+
+    @Test
+    public void testReplayOtherDimension() throws IOException {
+        // 9x9 has as many hounds as 8x8, and F9 is off the smaller board
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 9)) {
+            journal.appendMove("F9", "E8");
+        }
+
+        String[] players = FoxHoundUtils.initialisePositions(8);
+        String[] expected = players.clone();
+        assertEquals(LOAD_ERROR, FoxHoundJournal.replay(path, players, 8));
+        assertArrayEquals(expected, players);
+        assertEquals(FoxHoundUtils.HOUND_FIELD, FoxHoundJournal.replay(path, FoxHoundUtils.initialisePositions(9), 9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoveOffBoard() throws IOException {
+        try (FoxHoundJournal journal = new FoxHoundJournal(path, 8)) {
+            journal.appendMove("E8", "I9");
+        }
+    }
+}
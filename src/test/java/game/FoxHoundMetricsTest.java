@@ -0,0 +1,111 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class FoxHoundMetricsTest {
+
+    @Test
+    public void testBuckets() {
+        int previous = -1;
+        for (long value = 0; value < 100000; value++) {
+            int bucket = FoxHoundHistogram.bucket(value);
+            // every value lands in the next bucket or the one before
+            assertTrue(bucket == previous || bucket == previous + 1);
+            assertTrue(FoxHoundHistogram.highestValue(bucket) >= value);
+            // within 1/16 of the value
+            assertTrue(FoxHoundHistogram.highestValue(bucket) - value <= value / 16);
+            previous = bucket;
+        }
+        assertEquals(0, FoxHoundHistogram.bucket(-5));
+        int last = FoxHoundHistogram.bucket(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, FoxHoundHistogram.highestValue(last));
+        assertTrue(last < 1000);
+    }
+
+    @Test
+    public void testPercentiles() {
+        FoxHoundHistogram histogram = new FoxHoundHistogram("test");
+        assertEquals(0, histogram.percentile(99));
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(1000000, histogram.max());
+        assertEquals(500500, histogram.mean());
+        assertEquals(500000, histogram.percentile(50), 500000 / 16);
+        assertEquals(990000, histogram.percentile(99), 990000 / 16);
+        assertEquals(1000000, histogram.percentile(100));
+        assertTrue(histogram.percentile(50) <= histogram.percentile(90));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final FoxHoundHistogram histogram = new FoxHoundHistogram("test");
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final long offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    histogram.record(i + offset);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400000, histogram.count());
+        assertEquals(99999 + 3, histogram.max());
+    }
+
+    @Test
+    public void testSnapshots() throws IOException {
+        // metrics are off in the tests, so calls are not recorded
+        assertFalse(FoxHoundMetrics.ENABLED);
+        FoxHoundUtils.isValidMove(8, FoxHoundUtils.initialisePositions(8), 'F', "E8", "D7");
+        assertEquals(0, FoxHoundMetrics.IS_VALID_MOVE.count());
+
+        FoxHoundMetrics.LOAD_GAME.record(1500);
+        try {
+            String text = FoxHoundMetrics.text();
+            assertTrue(text.contains("isValidMove"));
+            assertTrue(text.contains("displayBoard"));
+            assertTrue(text.matches("(?s).*loadGame +1 +1\\.5 .*"));
+
+            String json = FoxHoundMetrics.json();
+            assertTrue(json.startsWith("{\"isValidMove\":{\"count\":0,"));
+            assertTrue(json.contains("\"loadGame\":{\"count\":1,\"mean\":1500,\"p50\":1500,\"p90\":1500,"
+                    + "\"p99\":1500,\"p99.9\":1500,\"max\":1500}"));
+
+            Path directory = Files.createTempDirectory("foxhound-metrics");
+            Path file = directory.resolve("metrics.json");
+            FoxHoundMetrics.dump(file);
+            assertEquals(json + "\n", new String(Files.readAllBytes(file), StandardCharsets.US_ASCII));
+            Files.delete(file);
+            Files.delete(directory);
+        } finally {
+            FoxHoundMetrics.reset();
+        }
+    }
+
+    @Test
+    public void testRatePastLongRange() {
+        // 2e10 events times a billion does not fit a long
+        assertEquals(2000000000L, FoxHoundMetrics.rate(20000000000L, 10000000000L, TimeUnit.SECONDS));
+        assertEquals(120000000000L, FoxHoundMetrics.rate(20000000000L, 10000000000L, TimeUnit.MINUTES));
+        assertEquals(56000000L, FoxHoundMetrics.rate(1120000000L, 20000000000L, TimeUnit.SECONDS));
+        assertEquals(0, FoxHoundMetrics.rate(5, 0, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,89 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FoxHoundMovesTest {
+
+    private static final int GAMES_PER_DIM = 3;
+    private static final int MAX_PLIES = 40;
+
+    /**
+     * Collect all moves accepted by FoxHoundPerft.isReferenceMove by trying
+     * every destination square for every figure of the given side. The
+     * reference shares no masks with the generator, unlike isValidMove.
+     */
+    private int[] bruteForceMoves(FoxHoundBoard board, char fh) {
+        int dim = board.dim();
+        String[] players = board.toPlayers();
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int n = 0;
+        for (int from = 0; from < dim * dim; from++) {
+            if (!board.isOccupied(from)) {
+                continue;
+            }
+            String before = FoxHoundBoard.squareName(from, dim);
+            for (int to = 0; to < dim * dim; to++) {
+                String after = FoxHoundBoard.squareName(to, dim);
+                if (FoxHoundPerft.isReferenceMove(dim, players, fh, before, after)) {
+                    moves[n++] = FoxHoundMoves.encode(from, to);
+                }
+            }
+        }
+        return Arrays.copyOf(moves, n);
+    }
+
+    private int[] generatedMoves(FoxHoundBoard board, char fh, int[] buffer) {
+        int n = FoxHoundMoves.generate(board, fh, buffer, 3);
+        int[] moves = Arrays.copyOfRange(buffer, 3, 3 + n);
+        Arrays.sort(moves);
+        return moves;
+    }
+
+    @Test
+    public void testGeneratorMatchesReferenceAllDimensions() {
+        Random random = new Random(42);
+        int[] buffer = new int[FoxHoundMoves.MAX_MOVES + 3];
+
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            for (int game = 0; game < GAMES_PER_DIM; game++) {
+                FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+                char turn = FoxHoundUtils.FOX_FIELD;
+
+                for (int ply = 0; ply < MAX_PLIES && !board.isFoxWin() && !board.isFoxTrapped(); ply++) {
+                    int[] expected = bruteForceMoves(board, turn);
+                    Arrays.sort(expected);
+                    int[] result = generatedMoves(board, turn, buffer);
+
+                    assertArrayEquals("Moves differ for " + turn + " on " + board + " dimension " + dim,
+                            expected, result);
+                    assertEquals(result.length > 0, FoxHoundMoves.hasMoves(board, turn));
+
+                    if (result.length == 0) {
+                        break;
+                    }
+                    int move = result[random.nextInt(result.length)];
+                    board.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+                    turn = turn == FoxHoundUtils.FOX_FIELD ? FoxHoundUtils.HOUND_FIELD : FoxHoundUtils.FOX_FIELD;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testInitialMoves() {
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(8), 8);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+
+        assertEquals(2, FoxHoundMoves.foxMoves(board, moves, 0));
+        assertEquals("E8 D7", FoxHoundMoves.toString(moves[0], 8));
+        assertEquals("E8 F7", FoxHoundMoves.toString(moves[1], 8));
+
+        // B1, D1, F1 have two moves each, H1 only G2
+        assertEquals(7, FoxHoundMoves.houndMoves(board, moves, 0));
+    }
+}
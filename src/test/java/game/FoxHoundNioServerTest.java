@@ -0,0 +1,92 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class FoxHoundNioServerTest {
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    private static void send(Socket socket, String text) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(text.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Test
+    public void testPipelinedCommands() throws IOException {
+        try (FoxHoundNioServer server = new FoxHoundNioServer(0, 8).start();
+                Socket socket = new Socket("localhost", server.port())) {
+            BufferedReader in = reader(socket);
+            // one packet, the last command split over two
+            send(socket, "STATE\nMOVE E8 D7\nMOVE B1 C2\nSAVE\nLOAD H B1 D1 F1 H1 D7\nMOVE A1 B2\nST");
+            send(socket, "ATE\n");
+            assertEquals("OK F B1 D1 F1 H1 E8", in.readLine());
+            assertEquals("OK H B1 D1 F1 H1 D7", in.readLine());
+            assertEquals("OK F C2 D1 F1 H1 D7", in.readLine());
+            assertEquals("SAVED F C2 D1 F1 H1 D7", in.readLine());
+            assertEquals("OK H B1 D1 F1 H1 D7", in.readLine());
+            assertEquals("ERR invalid move", in.readLine());
+            assertEquals("OK H B1 D1 F1 H1 D7", in.readLine());
+
+            send(socket, "QUIT\nSTATE\n");
+            assertEquals("BYE", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    public void testManyRepliesToOneClient() throws IOException {
+        try (FoxHoundNioServer server = new FoxHoundNioServer(0, 8).start();
+                Socket socket = new Socket("localhost", server.port())) {
+            // more replies than the socket buffers hold before the client reads
+            StringBuilder commands = new StringBuilder();
+            int count = 20000;
+            for (int i = 0; i < count; i++) {
+                commands.append("STATE\n");
+            }
+            send(socket, commands.toString());
+            BufferedReader in = reader(socket);
+            for (int i = 0; i < count; i++) {
+                assertEquals("OK F B1 D1 F1 H1 E8", in.readLine());
+            }
+            assertEquals(count, server.commands());
+        }
+    }
+
+    @Test
+    public void testOverlongLine() throws IOException {
+        try (FoxHoundNioServer server = new FoxHoundNioServer(0, 8).start();
+                Socket socket = new Socket("localhost", server.port())) {
+            StringBuilder line = new StringBuilder("STATE\n");
+            for (int i = 0; i <= FoxHoundServer.MAX_LINE; i++) {
+                line.append('x');
+            }
+            send(socket, line.toString());
+            BufferedReader in = reader(socket);
+            assertEquals("OK F B1 D1 F1 H1 E8", in.readLine());
+            assertEquals("ERR line too long", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    @Test
+    public void testLoadClient() throws IOException {
+        try (FoxHoundNioServer server = new FoxHoundNioServer(0, 8).start()) {
+            FoxHoundLoadClient.Summary summary = FoxHoundLoadClient.run("localhost", server.port(), 30, 6, 8, 7);
+            assertEquals(30, summary.sessions);
+            assertEquals(30, server.sessionsOpened());
+            assertTrue(summary.moves >= 30 * 7);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+public class FoxHoundParallelSearchTest {
+
+    private static final int DEPTH = 8;
+
+    @Test
+    public void testRepeatedSearchesReachDepth() {
+        String[] players = FoxHoundUtils.initialisePositions(FoxHoundUtils.DEFAULT_DIM);
+        char turn = FoxHoundIO.loadGame(players, Paths.get("data/game01.txt"));
+        FoxHoundBoard position = FoxHoundBoard.fromPlayers(players, FoxHoundUtils.DEFAULT_DIM);
+
+        try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(FoxHoundUtils.DEFAULT_DIM, 4)) {
+            assertEquals(4, search.threads());
+            for (int run = 0; run < 3; run++) {
+                FoxHoundEngine.Result result = search.search(position, turn, FoxHoundEngine.NO_TIME_LIMIT, DEPTH);
+
+                assertEquals("Parallel search expected to reach the requested depth", DEPTH, result.depth);
+                assertTrue(result.nodes >= result.depth);
+
+                String before = FoxHoundBoard.squareName(FoxHoundMoves.from(result.move), FoxHoundUtils.DEFAULT_DIM);
+                String after = FoxHoundBoard.squareName(FoxHoundMoves.to(result.move), FoxHoundUtils.DEFAULT_DIM);
+                assertTrue(FoxHoundUtils.isValidMove(FoxHoundUtils.DEFAULT_DIM, players, turn, before, after));
+            }
+        }
+    }
+
+    @Test
+    public void testHoundsTrapFoxInCorner() {
+        String[] players = { "A6", "D1", "F1", "H1", "A8" };
+        try (FoxHoundParallelSearch search = new FoxHoundParallelSearch(FoxHoundUtils.DEFAULT_DIM, 3)) {
+            FoxHoundEngine.Result result = search.search(players, FoxHoundUtils.HOUND_FIELD, 200);
+
+            assertTrue(result.isWin());
+            assertEquals("A6 B7", FoxHoundMoves.toString(result.move, FoxHoundUtils.DEFAULT_DIM));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreadCount() {
+        new FoxHoundParallelSearch(FoxHoundUtils.DEFAULT_DIM, 0);
+    }
+}
@@ -0,0 +1,91 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class FoxHoundPerftTest {
+
+    private static FoxHoundBoard start(int dim) {
+        return FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(dim), dim);
+    }
+
+    @Test
+    public void testStartCounts() {
+        FoxHoundBoard board = start(8);
+        assertEquals(1, FoxHoundPerft.perft(board, 'F', 0));
+        assertEquals(2, FoxHoundPerft.perft(board, 'F', 1));
+        // seven hound moves after either fox move
+        assertEquals(14, FoxHoundPerft.perft(board, 'F', 2));
+        assertEquals(7, FoxHoundPerft.perft(board, 'H', 1));
+    }
+
+    @Test
+    public void testSameAsReference() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= 10; dim++) {
+            String[] players = FoxHoundUtils.initialisePositions(dim);
+            for (int depth = 1; depth <= 5; depth++) {
+                assertEquals("perft " + depth + " on " + dim + "x" + dim,
+                        FoxHoundPerft.referencePerft(dim, players, 'F', depth),
+                        FoxHoundPerft.perft(start(dim), 'F', depth));
+            }
+            assertArrayEquals(FoxHoundUtils.initialisePositions(dim), players);
+        }
+    }
+
+    @Test
+    public void testReferenceRules() {
+        String[] players = { "B1", "D1", "F1", "H1", "H6" };
+        assertTrue(FoxHoundPerft.isReferenceMove(8, players, 'F', "H6", "G5"));
+        assertTrue(FoxHoundPerft.isReferenceMove(8, players, 'F', "H6", "G7"));
+        // one file past the right edge, straight down and two ranks
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'F', "H6", "I5"));
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'F', "H6", "H5"));
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'F', "H6", "G4"));
+        assertTrue(FoxHoundPerft.isReferenceMove(8, players, 'H', "H1", "G2"));
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'H', "H1", "I2"));
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'F', "H1", "G2"));
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'H', "H6", "G7"));
+        players[3] = "G2";
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'H', "G2", "F1"));
+        assertFalse(FoxHoundPerft.isReferenceMove(8, players, 'H', "F1", "G2"));
+    }
+
+    @Test
+    public void testSameAsReferenceLargestBoard() {
+        String[] players = FoxHoundUtils.initialisePositions(FoxHoundUtils.MAX_DIM);
+        assertEquals(FoxHoundPerft.referencePerft(FoxHoundUtils.MAX_DIM, players, 'F', 4),
+                FoxHoundPerft.perft(start(FoxHoundUtils.MAX_DIM), 'F', 4));
+    }
+
+    @Test
+    public void testGamesEndInTheTree() {
+        // 4x4 games are over within a few plies, so deep counts stop growing
+        String[] players = FoxHoundUtils.initialisePositions(4);
+        long reference = FoxHoundPerft.referencePerft(4, players, 'F', 9);
+        assertEquals(reference, FoxHoundPerft.perft(start(4), 'F', 9));
+        assertEquals(0, FoxHoundPerft.perft(FoxHoundBoard.fromPlayers(new String[] { "B3", "D1", "B1" }, 4), 'H', 3));
+    }
+
+    @Test
+    public void testDivide() {
+        String[] players = FoxHoundUtils.initialisePositions(8);
+        char turn = FoxHoundIO.loadGame(players, Paths.get("data/game01.txt"));
+        assertEquals('F', turn);
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(players, 8);
+
+        Map<String, Long> counts = FoxHoundPerft.divide(board, turn, 5, 3);
+        assertEquals(FoxHoundPerft.referenceDivide(8, players, turn, 5), counts);
+        assertEquals(4, counts.size());
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        assertEquals(FoxHoundPerft.perft(board, turn, 5), total);
+        assertEquals(counts, FoxHoundPerft.divide(board, turn, 5, 1));
+    }
+
+}
@@ -0,0 +1,131 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class FoxHoundSelfPlayTest {
+
+    private static final long SEED = 42;
+
+    @Test
+    public void testRandomGamesEndWithAWinner() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim += 3) {
+            FoxHoundSelfPlay game = new FoxHoundSelfPlay(dim, FoxHoundPolicy.random(), FoxHoundPolicy.random(),
+                    new SplittableRandom(SEED));
+            for (int i = 0; i < 50; i++) {
+                char winner = game.play();
+                String[] players = game.board().toPlayers();
+
+                // hounds only move forward, so a game cannot last longer than this
+                int houndMoves = FoxHoundBoard.houndCount(dim) * (dim - 1);
+                assertTrue(game.plies() > 0 && game.plies() <= 2 * houndMoves + 1);
+                if (winner == FoxHoundUtils.FOX_FIELD) {
+                    assertTrue(FoxHoundUtils.isFoxWin(players[players.length - 1])
+                            || !FoxHoundMoves.hasMoves(game.board(), FoxHoundUtils.HOUND_FIELD));
+                } else {
+                    assertEquals(FoxHoundUtils.HOUND_FIELD, winner);
+                    assertTrue(FoxHoundUtils.isHoundWin(players, dim));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testStopWhenDecided() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim += 5) {
+            for (int seed = 0; seed < 50; seed++) {
+                FoxHoundSelfPlay full = new FoxHoundSelfPlay(dim, FoxHoundPolicy.random(), FoxHoundPolicy.random(),
+                        new SplittableRandom(seed));
+                FoxHoundSelfPlay early = new FoxHoundSelfPlay(dim, FoxHoundPolicy.random(), FoxHoundPolicy.random(),
+                        new SplittableRandom(seed));
+                early.setStopWhenDecided(true);
+
+                // both play the same moves until the early game stops, with the same result
+                assertEquals(full.play(), early.play());
+                assertTrue(early.plies() <= full.plies());
+                if (early.plies() < full.plies()) {
+                    assertTrue(early.board().isFoxPastHounds());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSearchFoxBeatsRandomHounds() {
+        FoxHoundSelfPlay game = new FoxHoundSelfPlay(FoxHoundUtils.DEFAULT_DIM,
+                FoxHoundPolicy.search(FoxHoundUtils.DEFAULT_DIM, 3), FoxHoundPolicy.random(),
+                new SplittableRandom(SEED));
+        int foxWins = 0;
+        for (int i = 0; i < 20; i++) {
+            if (game.play() == FoxHoundUtils.FOX_FIELD) {
+                foxWins++;
+            }
+        }
+        assertTrue("Search fox expected to win most games, won " + foxWins, foxWins >= 15);
+    }
+
+    @Test
+    public void testGreedyHoundsBeatRandomFox() {
+        FoxHoundSelfPlay game = new FoxHoundSelfPlay(FoxHoundUtils.DEFAULT_DIM, FoxHoundPolicy.random(),
+                FoxHoundPolicy.greedy(FoxHoundUtils.DEFAULT_DIM), new SplittableRandom(SEED));
+        int houndWins = 0;
+        for (int i = 0; i < 50; i++) {
+            if (game.play() == FoxHoundUtils.HOUND_FIELD) {
+                houndWins++;
+            }
+        }
+        assertTrue("Greedy hounds expected to win most games, won " + houndWins, houndWins >= 30);
+    }
+
+    @Test
+    public void testRunWritesOneLinePerGame() throws IOException {
+        StringWriter out = new StringWriter();
+        FoxHoundSelfPlay.Summary summary = FoxHoundSelfPlay.run(FoxHoundUtils.DEFAULT_DIM, 1000, 4, "random",
+                "greedy", SEED, out);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(1000, lines.length);
+        assertEquals(1000, summary.games);
+        assertEquals(summary.games, summary.foxWins + summary.houndWins());
+
+        long foxWins = 0;
+        long plies = 0;
+        boolean[] seen = new boolean[1000];
+        for (String line : lines) {
+            String[] fields = line.split(" ");
+            assertEquals(3 + FoxHoundBoard.houndCount(FoxHoundUtils.DEFAULT_DIM) + 1, fields.length);
+            int id = Integer.parseInt(fields[0]);
+            assertFalse("Duplicate game " + id, seen[id]);
+            seen[id] = true;
+            if (fields[1].charAt(0) == FoxHoundUtils.FOX_FIELD) {
+                foxWins++;
+            }
+            plies += Long.parseLong(fields[2]);
+        }
+        assertEquals(summary.foxWins, foxWins);
+        assertEquals(summary.plies, plies);
+    }
+
+    @Test
+    public void testRunIsReproducible() throws IOException {
+        FoxHoundSelfPlay.Summary first = FoxHoundSelfPlay.run(6, 500, 2, "random", "random", SEED, new StringWriter());
+        FoxHoundSelfPlay.Summary second = FoxHoundSelfPlay.run(6, 500, 2, "random", "random", SEED, new StringWriter());
+        assertEquals(first.foxWins, second.foxWins);
+        assertEquals(first.plies, second.plies);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownPolicy() {
+        FoxHoundPolicy.forName("minimax", FoxHoundUtils.DEFAULT_DIM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSearchDepth() {
+        FoxHoundPolicy.forName("search:x", FoxHoundUtils.DEFAULT_DIM);
+    }
+}
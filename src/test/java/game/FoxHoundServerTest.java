@@ -0,0 +1,61 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class FoxHoundServerTest {
+
+    @Test
+    public void testPipelinedCommands() throws IOException {
+        StringWriter out = new StringWriter();
+        FoxHoundServer.serve(new StringReader("STATE\nMOVE E8 D7\nMOVE B1 C2\nQUIT\nSTATE\n"), out,
+                new FoxHoundSession(8));
+        assertEquals("OK F B1 D1 F1 H1 E8\nOK H B1 D1 F1 H1 D7\nOK F C2 D1 F1 H1 D7\nBYE\n", out.toString());
+    }
+
+    @Test
+    public void testOverlongLine() throws IOException {
+        StringBuilder line = new StringBuilder("STATE\n");
+        for (int i = 0; i <= FoxHoundServer.MAX_LINE; i++) {
+            line.append('x');
+        }
+        StringWriter out = new StringWriter();
+        FoxHoundServer.serve(new StringReader(line + "\nSTATE\n"), out, new FoxHoundSession(8));
+        assertEquals("OK F B1 D1 F1 H1 E8\nERR line too long\n", out.toString());
+    }
+
+    @Test
+    public void testSessionsOverTcp() throws IOException {
+        try (FoxHoundServer server = new FoxHoundServer(0, 8).start()) {
+            try (Socket socket = new Socket("localhost", server.port())) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+                out.append("NEW 6\nMOVE E6 D5\n").flush();
+                assertEquals("OK F B1 D1 F1 E6", in.readLine());
+                assertEquals("OK H B1 D1 F1 D5", in.readLine());
+                out.append("QUIT\n").flush();
+                assertEquals("BYE", in.readLine());
+                assertNull(in.readLine());
+            }
+
+            FoxHoundLoadClient.Summary summary = FoxHoundLoadClient.run("localhost", server.port(), 40, 8, 8, 42);
+            assertEquals(40, summary.sessions);
+            assertTrue(summary.moves >= 40 * 7);
+            assertTrue(summary.latency(50) > 0 && summary.latency(50) <= summary.latency(99));
+            assertTrue(summary.latency(99) <= summary.latency(100));
+            assertEquals(41, server.sessionsOpened());
+        }
+    }
+}
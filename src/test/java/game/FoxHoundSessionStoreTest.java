@@ -0,0 +1,130 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FoxHoundSessionStoreTest {
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("foxhound-sessions");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static String send(FoxHoundSessionStore store, String id, String line) throws IOException {
+        StringBuilder reply = new StringBuilder();
+        store.handle(id, line, reply);
+        return reply.toString();
+    }
+
+    @Test
+    public void testLeastRecentlyUsedAreHibernated() throws IOException {
+        try (FoxHoundSessionStore store = new FoxHoundSessionStore(directory, 2, 8)) {
+            assertEquals("OK H B1 D1 F1 H1 D7", send(store, "a", "MOVE E8 D7"));
+            assertEquals("OK H B1 D1 F1 H1 F7", send(store, "b", "MOVE E8 F7"));
+            send(store, "a", "STATE");
+            assertEquals("OK H B1 D1 F1 H1 D7", send(store, "c", "MOVE E8 D7"));
+
+            // b was used least recently
+            assertEquals(2, store.size());
+            assertFalse(store.isInMemory("b"));
+            assertTrue(store.isInMemory("a"));
+            assertEquals(1, store.hibernated());
+            assertEquals(FoxHoundIO.binarySize(8, 5), Files.size(directory.resolve("b.fhb")));
+
+            assertEquals("OK F C2 D1 F1 H1 F7", send(store, "b", "MOVE B1 C2"));
+            assertEquals(1, store.rehydrated());
+            assertFalse(store.isInMemory("a"));
+        }
+    }
+
+    @Test
+    public void testIdleSessionsAndRestart() throws IOException {
+        try (FoxHoundSessionStore store = new FoxHoundSessionStore(directory, 100, 8)) {
+            send(store, "x", "NEW 6");
+            send(store, "x", "MOVE E6 D5");
+            send(store, "y", "LOAD H B3 D1 B1");
+            assertEquals(2, store.hibernateIdle(0));
+            assertEquals(0, store.size());
+            assertEquals(0, store.hibernateIdle(0));
+        }
+        try (FoxHoundSessionStore store = new FoxHoundSessionStore(directory, 100, 8)) {
+            assertEquals("OK H B1 D1 F1 D5", send(store, "x", "STATE"));
+            assertEquals("OVER F B3 D1 B1", send(store, "y", "STATE"));
+            assertEquals("OK F B1 D1 F1 H1 E8", send(store, "z", "STATE"));
+            store.remove("x");
+            assertFalse(Files.exists(directory.resolve("x.fhb")));
+            assertEquals("OK F B1 D1 F1 H1 E8", send(store, "x", "STATE"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidId() throws IOException {
+        try (FoxHoundSessionStore store = new FoxHoundSessionStore(directory, 2, 8)) {
+            store.session("../escape");
+        }
+    }
+
+    @Test
+    public void testCorruptSession() throws IOException {
+        Files.write(directory.resolve("bad.fhb"), new byte[] { 1, 2, 3 });
+        try (FoxHoundSessionStore store = new FoxHoundSessionStore(directory, 2, 8)) {
+            store.session("bad");
+            fail("Corrupt session loaded");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Corrupt session"));
+        }
+    }
+
+    @Test
+    public void testStoredGamesOverTheServer() throws IOException {
+        try (FoxHoundSessionStore store = new FoxHoundSessionStore(directory, 1, 8);
+                FoxHoundNioServer server = new FoxHoundNioServer(0, 8, store).start()) {
+            for (String line : new String[] { "GAME g1\nMOVE E8 D7\n", "GAME g2\nSTATE\nGAME g1\nQUIT\n" }) {
+                try (Socket socket = new Socket("localhost", server.port())) {
+                    OutputStream out = socket.getOutputStream();
+                    out.write(line.getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                    socket.shutdownOutput();
+                    BufferedReader in = new BufferedReader(
+                            new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                    StringBuilder replies = new StringBuilder();
+                    for (String reply = in.readLine(); reply != null; reply = in.readLine()) {
+                        replies.append(reply).append('\n');
+                    }
+                    if (line.startsWith("GAME g1")) {
+                        assertEquals("OK F B1 D1 F1 H1 E8\nOK H B1 D1 F1 H1 D7\n", replies.toString());
+                    } else {
+                        assertEquals("OK F B1 D1 F1 H1 E8\nOK F B1 D1 F1 H1 E8\nOK H B1 D1 F1 H1 D7\nBYE\n",
+                                replies.toString());
+                    }
+                }
+            }
+            assertEquals(1, store.rehydrated());
+        }
+    }
+}
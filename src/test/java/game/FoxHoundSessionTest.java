@@ -0,0 +1,84 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundSessionTest {
+
+    private final FoxHoundSession session = new FoxHoundSession(FoxHoundUtils.DEFAULT_DIM);
+
+    private String send(String line) {
+        StringBuilder reply = new StringBuilder();
+        session.handle(line, reply);
+        return reply.toString();
+    }
+
+    @Test
+    public void testMoves() {
+        assertEquals("OK F B1 D1 F1 H1 E8", send("STATE"));
+        assertEquals("OK H B1 D1 F1 H1 D7", send("MOVE E8 D7"));
+        assertEquals("ERR invalid move", send("MOVE D7 C6"));
+        assertEquals("OK F C2 D1 F1 H1 D7", send(" move  B1 C2\r"));
+        assertEquals("OK F B1 D1 F1 H1 E8", send("NEW"));
+        assertEquals("OK F B1 D1 C4", send("NEW 4"));
+        assertEquals(4, session.dim());
+    }
+
+    @Test
+    public void testGameOver() {
+        session.reset(4);
+        String[] moves = { "C4 D3", "B1 A2", "D3 C2", "A2 B3", "C2 B1" };
+        for (String move : moves) {
+            send("MOVE " + move);
+        }
+        assertEquals("OVER F B3 D1 B1", send("STATE"));
+        assertEquals(FoxHoundUtils.FOX_FIELD, session.winner());
+        assertEquals("ERR game over", send("MOVE B3 C4"));
+        assertTrue(send("BEST").startsWith(FoxHoundSession.ERR));
+    }
+
+    @Test
+    public void testErrors() {
+        assertEquals("ERR unknown command", send("JUMP"));
+        assertEquals("ERR unknown command", send(""));
+        assertEquals("ERR expected MOVE <from> <to>", send("MOVE E8"));
+        assertTrue(send("MOVE 8E D7").startsWith(FoxHoundSession.ERR));
+        assertTrue(send("NEW 3").startsWith(FoxHoundSession.ERR));
+        assertTrue(send("NEW x").startsWith(FoxHoundSession.ERR));
+        assertTrue(send("BEST 0").startsWith(FoxHoundSession.ERR));
+        assertEquals("OK F B1 D1 F1 H1 E8", send("STATE"));
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        send("MOVE E8 D7");
+        assertEquals("SAVED H B1 D1 F1 H1 D7", send("SAVE"));
+        send("NEW 6");
+        assertEquals("OK H B1 D1 F1 H1 D7", send("LOAD H B1 D1 F1 H1 D7"));
+        assertEquals(8, session.dim());
+        assertEquals("OK F C2 D1 F1 H1 D7", send("MOVE B1 C2"));
+
+        assertEquals("OVER F B3 D1 B1", send("LOAD H B3 D1 B1"));
+        assertEquals(4, session.dim());
+        assertTrue(send("LOAD X B1 D1 F1 H1 D7").startsWith(FoxHoundSession.ERR));
+        assertTrue(send("LOAD F B1 D1 F1 H1 D30").startsWith(FoxHoundSession.ERR));
+        assertTrue(send("LOAD F B1 D1 F1 H1 B1").startsWith(FoxHoundSession.ERR));
+        assertTrue(send("LOAD F").startsWith(FoxHoundSession.ERR));
+        assertEquals("OVER F B3 D1 B1", send("STATE"));
+    }
+
+    @Test
+    public void testBestAndQuit() {
+        String best = send("BEST 20");
+        String[] words = best.split(" ");
+        assertEquals(FoxHoundSession.BEST, words[0]);
+        assertEquals("E8", words[1]);
+        assertTrue(FoxHoundUtils.isValidMove(8, session.players(), 'F', words[1], words[2]));
+        assertEquals("OK F B1 D1 F1 H1 E8", send("STATE"));
+
+        StringBuilder reply = new StringBuilder();
+        assertFalse(session.handle("QUIT", reply));
+        assertEquals(FoxHoundSession.BYE, reply.toString());
+    }
+}
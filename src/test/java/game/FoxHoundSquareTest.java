@@ -0,0 +1,47 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FoxHoundSquareTest {
+
+    @Test
+    public void testTables() {
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            FoxHoundSquare[] table = FoxHoundSquare.table(dim);
+            assertSame(table, FoxHoundSquare.table(dim));
+            assertEquals(dim * dim, table.length);
+            for (FoxHoundSquare square : table) {
+                assertEquals(square.index, FoxHoundBoard.parseSquare(square.name, dim));
+                assertSame(square, FoxHoundSquare.parse(square.name, dim));
+                assertSame(square.name, FoxHoundBoard.squareName(square.index, dim));
+                assertEquals((square.rank - 1) * dim + square.file, square.index);
+            }
+        }
+    }
+
+    @Test
+    public void testNeighbours() {
+        FoxHoundSquare b1 = FoxHoundSquare.parse("B1", 8);
+        assertEquals(1, b1.file);
+        assertEquals(1, b1.rank);
+        assertEquals(-1, b1.neighbour(FoxHoundSquare.DOWN_LEFT));
+        assertEquals(-1, b1.neighbour(FoxHoundSquare.DOWN_RIGHT));
+        assertEquals("A2", FoxHoundBoard.squareName(b1.neighbour(FoxHoundSquare.UP_LEFT), 8));
+        assertEquals("C2", FoxHoundBoard.squareName(b1.neighbour(FoxHoundSquare.UP_RIGHT), 8));
+
+        FoxHoundSquare z26 = FoxHoundSquare.parse("Z26", 26);
+        assertEquals("Y25", FoxHoundBoard.squareName(z26.neighbour(FoxHoundSquare.DOWN_LEFT), 26));
+        assertEquals(-1, z26.neighbour(FoxHoundSquare.DOWN_RIGHT));
+        assertEquals(-1, z26.neighbour(FoxHoundSquare.UP_LEFT));
+
+        assertNull(FoxHoundSquare.parse("I1", 8));
+        assertNull(FoxHoundSquare.parse("A9", 8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedName() {
+        FoxHoundSquare.parse("1B", 8);
+    }
+}
@@ -0,0 +1,84 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class FoxHoundStateTest {
+
+    @Test
+    public void testRandomGames() {
+        Random random = new Random(24);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        for (int dim = FoxHoundUtils.MIN_DIM; dim <= FoxHoundUtils.MAX_DIM; dim++) {
+            for (int game = 0; game < 20; game++) {
+                String[] players = FoxHoundUtils.initialisePositions(dim);
+                FoxHoundState state = new FoxHoundState(players, dim);
+                FoxHoundBoard board = FoxHoundBoard.fromPlayers(players, dim);
+                char turn = FoxHoundUtils.FOX_FIELD;
+                while (true) {
+                    assertEquals(FoxHoundUtils.isFoxWin(players[players.length - 1]), state.isFoxWin());
+                    assertEquals(FoxHoundUtils.isHoundWin(players, dim), state.isFoxTrapped());
+                    assertEquals(FoxHoundMoves.foxMoves(board, moves, 0), state.foxFreeSquares());
+                    assertEquals(board.isFoxPastHounds(), state.isFoxPastHounds());
+                    int n = FoxHoundMoves.generate(board, turn, moves, 0);
+                    if (state.isFoxWin() || n == 0) {
+                        break;
+                    }
+                    int move = moves[random.nextInt(n)];
+                    board.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+                    state.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+                    turn = FoxHoundEngine.opponent(turn);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEdges() {
+        // fox on the left edge, its one free square taken
+        String[] players = { "B3", "C4", "E6", "G6", "A4" };
+        FoxHoundState state = new FoxHoundState(players, 8);
+        assertEquals(1, state.foxFreeSquares());
+        state.move("C4", "B5");
+        assertEquals("B5", players[1]);
+        assertTrue(state.isFoxTrapped());
+        assertFalse(state.isFoxWin());
+
+        // fox in the top right corner of the largest board
+        players = FoxHoundUtils.initialisePositions(26);
+        players[players.length - 1] = "Z26";
+        players[players.length - 2] = "X24";
+        state = new FoxHoundState(players, 26);
+        assertEquals(1, state.foxFreeSquares());
+        state.move("X24", "Y25");
+        assertTrue(state.isFoxTrapped());
+        state.move("Y25", "X26");
+        assertEquals(1, state.foxFreeSquares());
+        state.move("Z26", "Y25");
+        assertEquals(3, state.foxFreeSquares());
+    }
+
+    @Test
+    public void testFoxWinAndReset() {
+        String[] players = { "B1", "D1", "A2" };
+        FoxHoundState state = new FoxHoundState(players, 4);
+        assertFalse(state.isFoxWin());
+        players[2] = "C1";
+        state.reset();
+        assertTrue(state.isFoxWin());
+        assertEquals(2, state.fox());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOccupiedTarget() {
+        new FoxHoundState(new String[] { "B1", "D1", "C2" }, 4).move("B1", "C2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOverlappingPieces() {
+        new FoxHoundState(new String[] { "B1", "B1", "C2" }, 4);
+    }
+}
@@ -0,0 +1,89 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class FoxHoundTableTest {
+
+    /** Few distinct keys so that writers keep colliding in the same slots. */
+    private static final int KEY_SPACE = 1000;
+
+    private static long mix(long x) {
+        x *= 0x9E3779B97F4A7C15L;
+        return x ^ (x >>> 29);
+    }
+
+    @Test
+    public void testStoreAndProbe() {
+        FoxHoundTable table = new FoxHoundTable(10);
+        long key = 0x123456789ABCDEFL;
+        int move = FoxHoundMoves.encode(675, 650);
+
+        assertEquals(FoxHoundTable.MISS, table.probe(key));
+
+        table.store(key, move, -4321, 7, FoxHoundTable.UPPER);
+        long data = table.probe(key);
+
+        assertEquals(move, FoxHoundTable.move(data));
+        assertEquals(-4321, FoxHoundTable.score(data));
+        assertEquals(7, FoxHoundTable.depth(data));
+        assertEquals(FoxHoundTable.UPPER, FoxHoundTable.bound(data));
+
+        // same slot, different key
+        assertEquals(FoxHoundTable.MISS, table.probe(key ^ 1L));
+    }
+
+    @Test
+    public void testStoreWithoutMove() {
+        FoxHoundTable table = new FoxHoundTable(4);
+        table.store(42L, -1, FoxHoundEngine.WIN_SCORE, 0, FoxHoundTable.EXACT);
+
+        long data = table.probe(42L);
+        assertEquals(-1, FoxHoundTable.move(data));
+        assertEquals(FoxHoundEngine.WIN_SCORE, FoxHoundTable.score(data));
+    }
+
+    @Test
+    public void testConcurrentWritersNeverExposeMixedEntries() throws InterruptedException {
+        final FoxHoundTable table = new FoxHoundTable(6);
+        final AtomicInteger corrupt = new AtomicInteger();
+        final AtomicInteger hits = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+
+        for (int t = 0; t < threads.length; t++) {
+            final long seed = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (int i = 0; i < 200000; i++) {
+                        long key = mix(random.nextInt(KEY_SPACE));
+                        // the score is derived from the key so readers can verify it
+                        int score = (int) (key ^ (key >>> 32)) & 0xFFFF;
+                        table.store(key, -1, score, 1, FoxHoundTable.EXACT);
+
+                        long probeKey = mix(random.nextInt(KEY_SPACE));
+                        long data = table.probe(probeKey);
+                        if (data != FoxHoundTable.MISS) {
+                            hits.incrementAndGet();
+                            if (FoxHoundTable.score(data) != ((int) (probeKey ^ (probeKey >>> 32)) & 0xFFFF)) {
+                                corrupt.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, corrupt.get());
+        assertTrue(hits.get() > 0);
+    }
+}
@@ -0,0 +1,61 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FoxHoundTablebaseFileTest {
+
+    private static final int DIM = FoxHoundTablebase.DIM;
+
+    private static FoxHoundTablebase tablebase;
+    private static Path path;
+
+    @BeforeClass
+    public static void writeTablebase() throws IOException {
+        tablebase = FoxHoundTablebase.generate();
+        path = Files.createTempFile("foxhound", ".tb");
+        tablebase.write(path);
+    }
+
+    @AfterClass
+    public static void deleteTablebase() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testMappedEntriesMatchGenerated() throws IOException {
+        FoxHoundTablebaseFile file = FoxHoundTablebaseFile.open(path);
+
+        for (long index = 0; index < FoxHoundTablebase.ENTRIES; index += 97) {
+            assertEquals("Win bit differs at " + index, tablebase.isWin(index), file.isWin(index));
+            assertEquals("Distance differs at " + index, tablebase.distance(index), file.distance(index));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenRejectsOtherFiles() throws IOException {
+        FoxHoundTablebaseFile.open(Paths.get("data/game01.txt"));
+    }
+
+    @Test
+    public void testEnginePlaysPerfectlyWithTablebase() throws IOException {
+        FoxHoundEngine engine = new FoxHoundEngine(DIM);
+        engine.setTablebase(FoxHoundTablebaseFile.open(path));
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(DIM), DIM);
+
+        FoxHoundEngine.Result result = engine.search(board, FoxHoundUtils.FOX_FIELD, 1000, 10);
+
+        // the hounds win the start position, 44 plies from the fox's first move
+        long index = FoxHoundTablebase.index(board, FoxHoundUtils.FOX_FIELD);
+        assertTrue(result.isLoss());
+        assertEquals(tablebase.distance(index), FoxHoundEngine.WIN_SCORE + result.score);
+    }
+}
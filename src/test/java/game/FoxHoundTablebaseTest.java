@@ -0,0 +1,88 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class FoxHoundTablebaseTest {
+
+    private static final int DIM = FoxHoundTablebase.DIM;
+    private static final int SEARCH_DEPTH = 9;
+
+    private static FoxHoundTablebase tablebase;
+
+    @BeforeClass
+    public static void generate() {
+        tablebase = FoxHoundTablebase.generate();
+    }
+
+    @Test
+    public void testStartPositionIsHoundWin() {
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(DIM), DIM);
+        long index = FoxHoundTablebase.index(board, FoxHoundUtils.FOX_FIELD);
+
+        assertTrue(index >= 0 && index < FoxHoundTablebase.ENTRIES);
+        assertFalse("The hounds are known to win the 8x8 game", tablebase.isWin(index));
+    }
+
+    @Test
+    public void testIndexRejectsLightSquares() {
+        FoxHoundBoard board = FoxHoundBoard.fromPlayers(new String[] { "A1", "D1", "F1", "H1", "E8" }, DIM);
+
+        assertEquals(-1, FoxHoundTablebase.index(board, FoxHoundUtils.FOX_FIELD));
+    }
+
+    @Test
+    public void testShortResultsMatchSearch() {
+        Random random = new Random(7);
+        FoxHoundEngine engine = new FoxHoundEngine(DIM);
+        int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+        int checked = 0;
+
+        for (int game = 0; game < 50; game++) {
+            FoxHoundBoard board = FoxHoundBoard.fromPlayers(FoxHoundUtils.initialisePositions(DIM), DIM);
+            char turn = FoxHoundUtils.FOX_FIELD;
+            while (!board.isFoxWin() && !board.isFoxTrapped()) {
+                long index = FoxHoundTablebase.index(board, turn);
+                int plies = tablebase.distance(index);
+                if (plies > 0 && plies < SEARCH_DEPTH) {
+                    engine.table().clear();
+                    FoxHoundEngine.Result result = engine.search(board, turn, FoxHoundEngine.NO_TIME_LIMIT,
+                            SEARCH_DEPTH);
+                    assertEquals("Winner differs for " + board + " " + turn, tablebase.isWin(index), result.isWin());
+                    assertEquals("Distance differs for " + board + " " + turn, plies,
+                            FoxHoundEngine.WIN_SCORE - Math.abs(result.score));
+                    checked++;
+                }
+
+                int count = FoxHoundMoves.generate(board, turn, moves, 0);
+                if (count == 0) {
+                    break;
+                }
+                int move = moves[random.nextInt(count)];
+                board.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+                turn = FoxHoundEngine.opponent(turn);
+            }
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        Path path = Files.createTempFile("foxhound", ".tb");
+        try {
+            tablebase.write(path);
+            long expected = FoxHoundTablebase.HEADER_BYTES + (FoxHoundTablebase.ENTRIES + 63) / 64 * 8
+                    + FoxHoundTablebase.ENTRIES;
+            assertEquals(expected, Files.size(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package game;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+public class FoxHoundValidatorTest {
+
+    // Check every line with a validator for dim (0 to infer it) and collect the results
+    private static List<String> check(int dim, String text) throws IOException {
+        final FoxHoundValidator validator = new FoxHoundValidator(dim);
+        final List<String> results = new ArrayList<>();
+        FoxHoundGameReader reader = new FoxHoundGameReader(new FoxHoundGameReader.Listener() {
+            @Override
+            public void game(FoxHoundGameReader.Record record) {
+                String reason = validator.check(record);
+                results.add(reason == null ? "valid" : reason);
+            }
+
+            @Override
+            public void invalid(Path file, long line, String reason) {
+                results.add(reason);
+            }
+        });
+        reader.read(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII))),
+                Paths.get("test"));
+        return results;
+    }
+
+    private static String check(String line) throws IOException {
+        return check(0, line).get(0);
+    }
+
+    @Test
+    public void testStartAndPlayedPositions() throws IOException {
+        assertEquals("valid", check("F B1 D1 F1 H1 E8"));
+        assertEquals("valid", check("F C2 D1 F1 H1 D7"));
+        assertEquals("valid", check("H B1 D1 F1 H1 D7"));
+        assertEquals("valid", check("F B1 D1 F1 H1 J1 L1 N1 P1 R1 T1 V1 X1 Z1 O26"));
+    }
+
+    @Test
+    public void testSelfPlayPositionsAreValid() throws IOException {
+        for (int dim : new int[] { 4, 7, 8, 12, 25 }) {
+            SplittableRandom random = new SplittableRandom(dim);
+            int[] moves = new int[FoxHoundMoves.MAX_MOVES];
+            StringBuilder lines = new StringBuilder();
+            for (int game = 0; game < 20; game++) {
+                String[] players = FoxHoundUtils.initialisePositions(dim);
+                FoxHoundBoard board = FoxHoundBoard.fromPlayers(players, dim);
+                char turn = FoxHoundUtils.FOX_FIELD;
+                while (!board.isFoxWin() && !board.isFoxTrapped()) {
+                    int count = FoxHoundMoves.generate(board, turn, moves, 0);
+                    if (count == 0) {
+                        break;
+                    }
+                    int move = moves[random.nextInt(count)];
+                    String from = FoxHoundBoard.squareName(FoxHoundMoves.from(move), dim);
+                    String to = FoxHoundBoard.squareName(FoxHoundMoves.to(move), dim);
+                    players[FoxHoundUtils.searchKey(players, from)] = to;
+                    board.move(FoxHoundMoves.from(move), FoxHoundMoves.to(move));
+                    turn = FoxHoundEngine.opponent(turn);
+                    lines.append(turn).append(' ').append(String.join(" ", players)).append('\n');
+                }
+            }
+            for (String result : check(dim, lines.toString())) {
+                assertEquals("Positions played on " + dim + "x" + dim + " expected to be valid", "valid", result);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidPositions() throws IOException {
+        assertEquals(FoxHoundValidator.OFF_BOARD, check("F C9 D1 F1 X1 D7"));
+        assertEquals(FoxHoundValidator.OVERLAP, check("F B1 D1 F1 H1 B1"));
+        assertEquals(FoxHoundValidator.LIGHT_SQUARE, check("F A1 D1 F1 H1 E8"));
+        assertEquals(FoxHoundValidator.NO_DIMENSION, check("F B1 E8"));
+        assertEquals(FoxHoundValidator.HOUND_OUT_OF_REACH, check("F B1 D1 F1 B3 E8"));
+        // the fox needs more moves than the hounds made
+        assertEquals(FoxHoundValidator.FOX_OUT_OF_REACH, check("F C2 D1 F1 H1 D5"));
+        // even number of moves cannot change the fox's rank by an odd number
+        assertEquals(FoxHoundValidator.FOX_OUT_OF_REACH, check("H B3 E4 C6 E6 D5"));
+        // the fox reached the first rank on its seventh move and the game ended before the hounds' seventh
+        assertEquals(FoxHoundValidator.UNREACHABLE, check("F B1 C2 F1 H7 D1"));
+        assertEquals(FoxHoundValidator.WRONG_COUNT, check(10, "F B1 D1 F1 H1 E8").get(0));
+        assertEquals(FoxHoundGameReader.NO_TURN, check("X C2 D1 F1 H1 D7"));
+    }
+
+    @Test
+    public void testValidateDirectory() throws IOException {
+        Path root = Files.createTempDirectory("foxhound");
+        try {
+            Files.createDirectory(root.resolve("sub"));
+            Files.write(root.resolve("a.txt"), "F B1 D1 F1 H1 E8\nF C9 D1 F1 X1 D7\n".getBytes());
+            Files.write(root.resolve("sub/b.txt"), "H B1 D1 F1 H1 D7\nX\n\nF C2 D1 F1 H1 D7\n".getBytes());
+            Files.write(root.resolve("sub/c.txt"), "F B1 D1 F1 H1 B1\n".getBytes());
+
+            ByteArrayOutputStream report = new ByteArrayOutputStream();
+            FoxHoundValidator.Summary summary = FoxHoundValidator.validate(root, 0, 3, new PrintStream(report, true));
+
+            assertEquals(3, summary.files);
+            assertEquals(6, summary.games);
+            assertEquals(3, summary.invalid);
+            assertEquals(Long.valueOf(1), summary.reasons.get(FoxHoundValidator.OVERLAP));
+            assertTrue(report.toString().contains("b.txt:2: " + FoxHoundGameReader.NO_TURN));
+            assertTrue(summary.toString().contains("3 valid"));
+        } finally {
+            for (String file : new String[] { "sub/c.txt", "sub/b.txt", "sub", "a.txt", "" }) {
+                Files.deleteIfExists(root.resolve(file));
+            }
+        }
+    }
+}